@@ -0,0 +1,137 @@
+'use strict';
+
+// 템플릿이 쓰는 파일만 묶어서 정적 리소스 폴더에 쓰고, 텍스트 파일은 gzip 과 brotli 로 미리 압축해 둔다.
+// 묶음 파일의 주소에는 스프링이 내용 해시를 붙이고(WebConfig), CSS 가 참조하는 폰트는 여기서 이름에 해시를 넣는다.
+// 사용법: node build.js <출력 폴더>
+
+const crypto = require('crypto');
+const fs = require('fs');
+const path = require('path');
+const zlib = require('zlib');
+
+const MODULES = path.join(__dirname, 'node_modules');
+
+const BUNDLES = {
+    'vendor.css': [
+        'bootstrap/dist/css/bootstrap.min.css',
+        'font-awesome/css/font-awesome.min.css'
+    ],
+    'vendor.js': [
+        'jquery/dist/jquery.min.js',
+        'bootstrap/dist/js/bootstrap.bundle.min.js',
+        'jdenticon/dist/jdenticon.min.js'
+    ],
+    'cropper.css': [
+        'cropper/dist/cropper.min.css'
+    ],
+    'cropper.js': [
+        'cropper/dist/cropper.min.js',
+        'jquery-cropper/dist/jquery-cropper.min.js'
+    ]
+};
+
+const COPIES = {
+    'images': path.join(__dirname, 'images')
+};
+
+const COMPRESSIBLE = new Set(['.css', '.js', '.svg', '.eot', '.ttf']);
+const SOURCE_MAP = /\/[*\/][#@] sourceMappingURL=[^\s*]*\s*(\*\/)?/g;
+const FONT_URL = /url\((['"]?)\.\.\/fonts\/([^?#'")]+)([^'")]*)\1\)/g;
+
+function main(outDir) {
+    if (!outDir) {
+        throw new Error('usage: node build.js <output directory>');
+    }
+
+    fs.rmSync(outDir, {recursive: true, force: true});
+    fs.mkdirSync(outDir, {recursive: true});
+
+    const written = [];
+    for (const [name, sources] of Object.entries(BUNDLES)) {
+        written.push(bundle(outDir, name, sources));
+    }
+    for (const [name, source] of Object.entries(COPIES)) {
+        written.push(...copyDirectory(source, path.join(outDir, name)));
+    }
+    written.forEach(precompress);
+}
+
+function bundle(outDir, name, sources) {
+    const separator = path.extname(name) === '.js' ? ';\n' : '\n';
+    let content = sources
+        .map(source => fs.readFileSync(path.join(MODULES, source), 'utf8').replace(SOURCE_MAP, ''))
+        .join(separator);
+
+    if (path.extname(name) === '.css') {
+        content = content.replace(FONT_URL, (match, quote, font, suffix) => {
+            const hashed = copyFont(outDir, font);
+            return `url(${quote}fonts/${hashed}${suffix}${quote})`;
+        });
+    }
+
+    const target = path.join(outDir, name);
+    fs.writeFileSync(target, content);
+    return target;
+}
+
+const fonts = new Map();
+
+function copyFont(outDir, font) {
+    if (!fonts.has(font)) {
+        const data = fs.readFileSync(path.join(MODULES, 'font-awesome/fonts', font));
+        const extension = path.extname(font);
+        const hashed = `${path.basename(font, extension)}.${hash(data)}${extension}`;
+        fs.mkdirSync(path.join(outDir, 'fonts'), {recursive: true});
+        const target = path.join(outDir, 'fonts', hashed);
+        fs.writeFileSync(target, data);
+        fonts.set(font, hashed);
+        precompress(target);
+    }
+    return fonts.get(font);
+}
+
+function copyDirectory(source, target) {
+    fs.mkdirSync(target, {recursive: true});
+    const written = [];
+    for (const entry of fs.readdirSync(source, {withFileTypes: true})) {
+        const from = path.join(source, entry.name);
+        const to = path.join(target, entry.name);
+        if (entry.isDirectory()) {
+            written.push(...copyDirectory(from, to));
+        } else {
+            fs.copyFileSync(from, to);
+            written.push(to);
+        }
+    }
+    return written;
+}
+
+function precompress(file) {
+    const data = fs.readFileSync(file);
+    let line = `${path.basename(file)}: ${data.length} bytes`;
+    if (COMPRESSIBLE.has(path.extname(file))) {
+        const gzip = zlib.gzipSync(data, {level: zlib.constants.Z_BEST_COMPRESSION});
+        const brotli = zlib.brotliCompressSync(data, {
+            params: {
+                [zlib.constants.BROTLI_PARAM_QUALITY]: zlib.constants.BROTLI_MAX_QUALITY,
+                [zlib.constants.BROTLI_PARAM_SIZE_HINT]: data.length
+            }
+        });
+        // 크기가 거의 줄지 않으면 압축본을 두지 않는다.
+        if (gzip.length < data.length * 0.9) {
+            fs.writeFileSync(file + '.gz', gzip);
+            line += `, gzip ${gzip.length}`;
+        }
+        if (brotli.length < data.length * 0.9) {
+            fs.writeFileSync(file + '.br', brotli);
+            line += `, brotli ${brotli.length}`;
+        }
+    }
+    console.log(line);
+}
+
+function hash(data) {
+    return crypto.createHash('sha256').update(data).digest('hex').substring(0, 16);
+}
+
+main(process.argv[2]);
@@ -0,0 +1,20 @@
+'use strict';
+
+// npm ci 는 integrity 가 없는 항목을 검증 없이 내려받으므로, 레지스트리에서 받는 패키지가 모두 해시를 가졌는지 먼저 확인한다.
+// 빠진 항목이 있으면 레지스트리에 접근할 수 있는 곳에서 npm install --package-lock-only 로 채운 뒤 커밋한다.
+// 사용법: node verify-lockfile.js
+
+const fs = require('fs');
+const path = require('path');
+
+const lockfile = JSON.parse(fs.readFileSync(path.join(__dirname, 'package-lock.json'), 'utf8'));
+
+const missing = Object.entries(lockfile.packages || {})
+    .filter(([name, entry]) => name !== '' && entry.resolved && !entry.integrity)
+    .map(([name, entry]) => `${name.replace(/^node_modules\//, '')}@${entry.version}`);
+
+if (missing.length > 0) {
+    console.error(`package-lock.json 에 integrity 가 없는 패키지가 있습니다: ${missing.join(', ')}`);
+    console.error('src/main/frontend 에서 npm install --package-lock-only 를 실행해 해시를 채우세요.');
+    process.exit(1);
+}
@@ -0,0 +1,131 @@
+package com.promoticon.account;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 이메일과 유저네임 중복 검사 앞에 두는 Bloom filter. 없다고 하면 DB 를 보지 않고, 있을 수도 있다고 하면 DB 로 확인한다.
+ * 최종 판단은 여전히 DB 의 unique 제약이 한다. 바뀐 유저네임이나 지운 계정은 필터에서 뺄 수 없으므로 주기적으로 다시 만든다.
+ */
+@Slf4j
+@Component
+public class AccountBloomFilters {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BloomFilterProperties properties;
+    private final Counter absent;
+    private final Counter mightExist;
+
+    private volatile Filters current;
+    private volatile Filters building;
+
+    public AccountBloomFilters(JdbcTemplate jdbcTemplate, BloomFilterProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.absent = Counter.builder("bloom.filter.lookups").tag("result", "absent").register(meterRegistry);
+        this.mightExist = Counter.builder("bloom.filter.lookups").tag("result", "maybe").register(meterRegistry);
+
+        Gauge.builder("bloom.filter.false.positive.rate", this, filters -> filters.gauge(true, false))
+                .tag("filter", "email").register(meterRegistry);
+        Gauge.builder("bloom.filter.false.positive.rate", this, filters -> filters.gauge(false, false))
+                .tag("filter", "username").register(meterRegistry);
+        Gauge.builder("bloom.filter.memory", this, filters -> filters.gauge(true, true))
+                .tag("filter", "email").baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("bloom.filter.memory", this, filters -> filters.gauge(false, true))
+                .tag("filter", "username").baseUnit("bytes").register(meterRegistry);
+    }
+
+    public boolean mightContainEmail(String email) {
+        Filters filters = current;
+        return record(filters == null || filters.emails.mightContain(email));
+    }
+
+    public boolean mightContainUsername(String username) {
+        Filters filters = current;
+        return record(filters == null || filters.usernames.mightContain(username));
+    }
+
+    public void putEmail(String email) {
+        for (Filters filters : new Filters[]{current, building}) {
+            if (filters != null) {
+                filters.emails.put(email);
+            }
+        }
+    }
+
+    public void putUsername(String username) {
+        for (Filters filters : new Filters[]{current, building}) {
+            if (filters != null) {
+                filters.usernames.put(username);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        rebuild();
+    }
+
+    @Scheduled(cron = "${app.bloom-filter.rebuild-cron:0 0 4 * * *}")
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        Long accounts = jdbcTemplate.queryForObject("select count(*) from account", Long.class);
+        long expected = Math.max(properties.getExpectedInsertions(), accounts == null ? 0 : accounts * 2);
+        Filters filters = new Filters(expected, properties.getFalsePositiveRate());
+        // 읽는 동안 가입하거나 유저네임을 바꾼 값도 새 필터에 들어가도록 먼저 걸어 둔다.
+        building = filters;
+
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streaming.setFetchSize(1000);
+        streaming.query("select email, username from account", rs -> {
+            String email = rs.getString(1);
+            String username = rs.getString(2);
+            if (email != null) {
+                filters.emails.put(email);
+            }
+            if (username != null) {
+                filters.usernames.put(username);
+            }
+        });
+
+        current = filters;
+        building = null;
+        log.info("account bloom filters built from {} accounts in {} ms: {} KB each, k = {}, estimated false positive rate email {}, username {}",
+                accounts, (System.nanoTime() - start) / 1_000_000, filters.emails.memoryBytes() / 1024,
+                filters.emails.getHashFunctions(),
+                String.format("%.5f", filters.emails.expectedFalsePositiveRate()),
+                String.format("%.5f", filters.usernames.expectedFalsePositiveRate()));
+    }
+
+    private boolean record(boolean mightContain) {
+        (mightContain ? mightExist : absent).increment();
+        return mightContain;
+    }
+
+    private double gauge(boolean email, boolean memory) {
+        Filters filters = current;
+        if (filters == null) {
+            return Double.NaN;
+        }
+        BloomFilter filter = email ? filters.emails : filters.usernames;
+        return memory ? filter.memoryBytes() : filter.expectedFalsePositiveRate();
+    }
+
+    private static class Filters {
+
+        private final BloomFilter emails;
+        private final BloomFilter usernames;
+
+        Filters(long expectedInsertions, double falsePositiveRate) {
+            this.emails = new BloomFilter(expectedInsertions, falsePositiveRate);
+            this.usernames = new BloomFilter(expectedInsertions, falsePositiveRate);
+        }
+    }
+}
@@ -1,9 +1,10 @@
 package com.promoticon.account;
 
 import com.promoticon.domain.Account;
+import com.promoticon.ratelimit.RateLimiters;
 import lombok.RequiredArgsConstructor;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.Errors;
@@ -12,7 +13,6 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import javax.validation.Valid;
-import java.time.LocalDateTime;
 
 @Controller
 @RequiredArgsConstructor
@@ -21,6 +21,9 @@ public class AccountController {
     private final SignUpFormValidator signUpFormValidator;
     private final AccountService accountService;
     private final AccountRepository accountRepository;
+    private final RateLimiters rateLimiters;
+    private final EmailTokenService emailTokenService;
+    private final MemberCounter memberCounter;
 
     @InitBinder("signUpForm")
     public void initBinder(WebDataBinder webDataBinder) {
@@ -39,7 +42,20 @@ public class AccountController {
             return "account/sign-up";
         }
 
-        Account account = accountService.processNewAccount(signUpForm);
+        Account account;
+        try {
+            account = accountService.processNewAccount(signUpForm);
+        } catch (DataIntegrityViolationException e) {
+            // 검증을 통과한 사이에 같은 이메일이나 유저네임으로 먼저 가입한 경우
+            if (accountRepository.existsByEmail(signUpForm.getEmail())) {
+                errors.rejectValue("email", "invalid.email", new Object[]{signUpForm.getEmail()}, "이미 사용 중인 이메일입니다.");
+            } else {
+                errors.rejectValue("username", "invalid.username", new Object[]{signUpForm.getUsername()}, "이미 사용 중인 유저네임입니다.");
+            }
+            return "account/sign-up";
+        }
+        // 가입하면서 인증 메일을 보냈으므로 재전송 한도를 하나 쓴다.
+        rateLimiters.tryConfirmEmail(account.getId());
         accountService.login(account);
         return "redirect:/";
     }
@@ -51,47 +67,44 @@ public class AccountController {
     }
 
     @GetMapping("/resend-confirm-email")
-    public String resendConfirmEmail(@CurrentUser Account account, Model model) {
-        if (!account.canSendConfirmEmail()) {
-            model.addAttribute("error", "인증 이메일은 1시간에 한번 전송할 수 있습니다.");
-            model.addAttribute("email", account.getEmail());
-            return "account/check-email";
+    public String resendConfirmEmail(@AuthenticationPrincipal UserAccount userAccount, RedirectAttributes redirectAttributes) {
+        if (!rateLimiters.tryConfirmEmail(userAccount.getId())) {
+            redirectAttributes.addFlashAttribute("error", "인증 이메일은 1시간에 한번 전송할 수 있습니다.");
+            return "redirect:/check-email";
         }
-        accountService.sendSignUpConfirmEmail(account);
+        accountService.sendSignUpConfirmEmail(accountService.getAccount(userAccount.getId()));
         return "redirect:/";
     }
 
     @GetMapping("/check-email-token")
-    public String checkEmailToken(String token, String email, Model model) {
-        Account account = accountRepository.findByEmail(email);
+    public String checkEmailToken(String token, Model model) {
         String view = "account/checked-email";
+        Account account = emailTokenService.verify(token, EmailTokenService.Purpose.CONFIRM_EMAIL)
+                .map(accountService::getAccount)
+                .orElse(null);
 
         if (account == null) {
-            model.addAttribute("error", "wrong.email");
-            return view;
-        }
-
-        if (!account.isValidToken(token)) {
             model.addAttribute("error", "wrong.token");
             return view;
         }
 
         accountService.completeSignUp(account);
 
-        model.addAttribute("numberOfUser", accountRepository.count());
+        model.addAttribute("numberOfUser", memberCounter.get());
         model.addAttribute("username", account.getUsername());
         return view;
     }
 
     @GetMapping("/profile/{username}")
-    public String viewProfile(@PathVariable String username, Model model, @CurrentUser Account account) {
-        Account byUsername = accountRepository.findByUsername(username);
-        if (byUsername == null) {
+    public String viewProfile(@PathVariable String username, Model model, @AuthenticationPrincipal UserAccount userAccount) {
+        // 계정은 2차 캐시에 있으므로 프로젝션으로 컬럼을 골라 읽는 것보다 엔티티로 읽는 쪽이 싸다.
+        Account account = accountRepository.findByUsername(username);
+        if (account == null) {
             throw new IllegalArgumentException(username + "에 해당하는 사용자가 없습니다.");
         }
 
-        model.addAttribute("account", byUsername);
-        model.addAttribute("isOwner", byUsername.equals(account));
+        model.addAttribute("account", account);
+        model.addAttribute("isOwner", userAccount != null && userAccount.getId().equals(account.getId()));
         return "account/profile";
     }
 
@@ -102,26 +115,29 @@ public class AccountController {
 
     @PostMapping("/email-login")
     public String sendEmailLoginLink(String email, Model model, RedirectAttributes redirectAttributes) {
+        if (!rateLimiters.tryEmailLogin(email)) {
+            model.addAttribute("error", "이메일 로그인은 5분 뒤에 사용할 수 있습니다.");
+            return "account/email-login";
+        }
+
         Account account = accountRepository.findByEmail(email);
         if (account == null) {
             model.addAttribute("error", "유효한 이메일 주소가 아닙니다.");
             return "account/email-login";
         }
 
-        if (!account.canSendConfirmEmail()) {
-            model.addAttribute("error", "이메일 로그인은 5분 뒤에 사용할 수 있습니다.");
-            //return "account/email-login";
-        }
         accountService.sendLoginLink(account);
         redirectAttributes.addFlashAttribute("message", "인증 메일을 발송했습니다.");
         return "redirect:/email-login";
     }
 
     @GetMapping("/login-by-email")
-    public String loginByEmail(String token, String email, Model model) {
-        Account account = accountRepository.findByEmail(email);
+    public String loginByEmail(String token, Model model) {
         String view = "account/logged-in-by-email";
-        if (account == null || !account.isValidToken(token)) {
+        Account account = emailTokenService.consumeLoginToken(token)
+                .map(accountService::getAccount)
+                .orElse(null);
+        if (account == null) {
             model.addAttribute("error", "로그인에 실패했습니다.");
             return view;
         }
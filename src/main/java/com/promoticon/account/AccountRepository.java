@@ -2,16 +2,24 @@ package com.promoticon.account;
 
 import com.promoticon.domain.Account;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.QueryHint;
+
 @Transactional(readOnly = true)
-public interface AccountRepository extends JpaRepository<Account, Long> {
+public interface AccountRepository extends JpaRepository<Account, Long>, AccountRepositoryCustom {
 
     boolean existsByEmail(String email);
 
     boolean existsByUsername(String username);
 
+    // 이메일은 자연 키가 아니라서 쿼리 캐시에 결과 id 를 두고 계정은 2차 캐시에서 읽는다.
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = Account.BY_EMAIL_CACHE_REGION)
+    })
     Account findByEmail(String email);
 
-    Account findByUsername(String Username);
+    NavbarAccount findNavbarById(Long id);
 }
@@ -0,0 +1,11 @@
+package com.promoticon.account;
+
+import com.promoticon.domain.Account;
+
+public interface AccountRepositoryCustom {
+
+    /**
+     * 유저네임은 자연 키라서 2차 캐시에 있으면 쿼리 없이 찾는다.
+     */
+    Account findByUsername(String username);
+}
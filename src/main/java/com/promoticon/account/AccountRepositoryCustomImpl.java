@@ -0,0 +1,35 @@
+package com.promoticon.account;
+
+import com.promoticon.domain.Account;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+
+@Transactional(readOnly = true)
+@RequiredArgsConstructor
+public class AccountRepositoryCustomImpl implements AccountRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Account findByUsername(String username) {
+        if (username == null) {
+            return null;
+        }
+        Session session = entityManager.unwrap(Session.class);
+        Account account = session.bySimpleNaturalId(Account.class).load(username);
+        if (account == null || username.equals(account.getUsername())) {
+            return account;
+        }
+
+        // 뒤처진 replica 에서 읽은 옛 유저네임이 natural-id 캐시에 남아 있었다. 캐시를 비우고 다시 찾는다.
+        session.getSessionFactory().getCache().evictNaturalIdData(Account.class);
+        return entityManager.createQuery("select a from Account a where a.username = :username", Account.class)
+                .setParameter("username", username)
+                .getResultStream()
+                .findFirst()
+                .orElse(null);
+    }
+}
@@ -1,37 +1,52 @@
 package com.promoticon.account;
 
+import com.promoticon.config.AppProperties;
 import com.promoticon.domain.Account;
+import com.promoticon.image.ProfileImageUploadedEvent;
+import com.promoticon.mail.MailOutbox;
+import com.promoticon.mail.MailTemplates;
 import com.promoticon.settings.form.Notifications;
 import com.promoticon.settings.form.Profile;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Transactional
 @RequiredArgsConstructor
-public class AccountService implements UserDetailsService {
+public class AccountService implements UserDetailsService, UserDetailsPasswordService {
 
     private final AccountRepository accountRepository;
-    private final JavaMailSender javaMailSender;
+    private final MailOutbox mailOutbox;
+    private final MailTemplates mailTemplates;
+    private final AppProperties appProperties;
     private final PasswordEncoder passwordEncoder;
     private final ModelMapper modelMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserAccountCache userAccountCache;
+    private final EmailTokenService emailTokenService;
+    private final AccountBloomFilters accountBloomFilters;
+    private final UsernameIndex usernameIndex;
+    private final MemberCounter memberCounter;
+    private final NavbarRenderCache navbarRenderCache;
 
     public Account processNewAccount(SignUpForm signUpForm) {
         Account newAccount = saveNewAccount(signUpForm);
-        newAccount.generateEmailCheckToken();
         sendSignUpConfirmEmail(newAccount);
         return newAccount;
     }
@@ -43,78 +58,119 @@ public class AccountService implements UserDetailsService {
                 .password(passwordEncoder.encode(signUpForm.getPassword()))
                 .emoticonCreatedByWeb(true)
                 .feedbackUpdatedByWeb(true)
+                .createdAt(LocalDateTime.now())
                 .build();
 
         Account newAccount = accountRepository.save(account);
+        userAccountCache.evict(newAccount);
+        accountBloomFilters.putEmail(newAccount.getEmail());
+        accountBloomFilters.putUsername(newAccount.getUsername());
+        usernameIndex.add(newAccount.getUsername());
         return newAccount;
     }
 
     public void sendSignUpConfirmEmail(Account newAccount) {
-        SimpleMailMessage mailMessage = new SimpleMailMessage();
-        mailMessage.setTo(newAccount.getEmail());
-        mailMessage.setSubject("Promoticon: 회원 가입 인증");
-        mailMessage.setText("/check-email-token?token=" + newAccount.getEmailCheckToken()
-                + "&email=" + newAccount.getEmail());
-
-        javaMailSender.send(mailMessage);
+        String link = appProperties.getHost() + "/check-email-token?token="
+                + emailTokenService.generate(newAccount, EmailTokenService.Purpose.CONFIRM_EMAIL);
+        sendLinkMail(newAccount, "프로모티콘: 회원 가입 인증", "프로모티콘 서비스를 사용하려면 링크를 클릭하세요.", link, "이메일 인증하기");
     }
 
     public void login(Account account) {
+        UserAccount userAccount = new UserAccount(account);
+        userAccount.eraseCredentials();
         UsernamePasswordAuthenticationToken token = new UsernamePasswordAuthenticationToken(
-                new UserAccount(account),
-                account.getPassword(),
+                userAccount,
+                null,
                 List.of(new SimpleGrantedAuthority("ROLE_USER")));
 
         SecurityContextHolder.getContext().setAuthentication(token);
     }
 
     @Transactional(readOnly = true)
+    public Account getAccount(Long id) {
+        return accountRepository.findById(id).orElse(null);
+    }
+
+    // 읽기 전용으로 두면 replica 로 가서 복제되기 전의 패스워드 해시를 캐시에 담을 수 있으므로 primary 에서 읽는다.
     @Override
     public UserDetails loadUserByUsername(String emailOrUsername) throws UsernameNotFoundException {
-        Account account = accountRepository.findByEmail(emailOrUsername);
-        if (account == null) {
-            account = accountRepository.findByUsername(emailOrUsername);
-        }
-
-        if (account == null) {
+        // 유저네임에는 @ 가 들어갈 수 없으므로 어느 쪽인지 골라서 캐시를 타는 조회를 쓴다.
+        UserAccount userAccount = userAccountCache.get(emailOrUsername, id -> {
+            Account account = id.contains("@") ? accountRepository.findByEmail(id) : accountRepository.findByUsername(id);
+            return account == null ? null : new UserAccount(account);
+        });
+        if (userAccount == null) {
             throw new UsernameNotFoundException(emailOrUsername);
         }
 
-        return new UserAccount(account);
+        return userAccount;
     }
 
     public void completeSignUp(Account account) {
+        boolean newMember = !account.isEmailVerified();
         account.completeSignUp();
+        userAccountCache.evict(account);
+        if (newMember) {
+            memberCounter.increment();
+        }
         login(account);
     }
 
     public void updateProfile(Account account, Profile profile) {
         modelMapper.map(profile, account);
         accountRepository.save(account);
+        userAccountCache.evict(account);
+        navbarRenderCache.evict(account.getId());
+        if (StringUtils.hasText(profile.getProfileImage())) {
+            eventPublisher.publishEvent(new ProfileImageUploadedEvent(account.getId(), profile.getProfileImage()));
+        }
     }
 
     public void updatePassword(Account account, String newPassword) {
         account.setPassword(passwordEncoder.encode(newPassword));
         accountRepository.save(account);
+        userAccountCache.evict(account);
+    }
+
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Account account = accountRepository.findByUsername(user.getUsername());
+        account.setPassword(newPassword);
+        userAccountCache.evict(account);
+        return new UserAccount(account);
     }
 
     public void updateNotifications(Account account, Notifications notifications) {
         modelMapper.map(notifications, account);
         accountRepository.save(account);
+        userAccountCache.evict(account);
+        navbarRenderCache.evict(account.getId());
     }
 
     public void updateUsername(Account account, String username) {
+        userAccountCache.evict(account);
+        navbarRenderCache.evict(account.getId());
+        String oldUsername = account.getUsername();
         account.setUsername(username);
-        accountRepository.save(account);
+        // unique 제약 위반을 로그인 정보를 바꾸기 전에 알 수 있도록 바로 반영한다.
+        accountRepository.saveAndFlush(account);
+        accountBloomFilters.putUsername(username);
+        usernameIndex.rename(oldUsername, username);
         login(account);
     }
 
     public void sendLoginLink(Account account) {
-        account.generateEmailCheckToken();
-        SimpleMailMessage mailMessage = new SimpleMailMessage();
-        mailMessage.setTo(account.getEmail());
-        mailMessage.setSubject("프로모티콘: 인증 링크");
-        mailMessage.setText("/login-by-email?token=" + account.getEmailCheckToken() + "&email=" + account.getEmail());
-        javaMailSender.send(mailMessage);
+        String link = appProperties.getHost() + "/login-by-email?token="
+                + emailTokenService.generate(account, EmailTokenService.Purpose.LOGIN);
+        sendLinkMail(account, "프로모티콘: 로그인 링크", "이메일로 로그인하려면 링크를 클릭하세요.", link, "이메일로 로그인하기");
+    }
+
+    private void sendLinkMail(Account account, String subject, String message, String link, String linkName) {
+        String html = mailTemplates.render(MailTemplates.SIMPLE_LINK, Map.of(
+                "nickname", account.getUsername(),
+                "message", message,
+                "link", link,
+                "linkName", linkName));
+        mailOutbox.enqueue(account.getEmail(), subject, message + "\n" + link, html);
     }
 }
@@ -0,0 +1,16 @@
+package com.promoticon.account;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties("app.bloom-filter")
+public class BloomFilterProperties {
+
+    /** 예상 계정 수. 넘어서면 오탐률이 올라가므로 다시 만들 때 실제 계정 수의 두 배로 잡는다. */
+    private long expectedInsertions = 1_000_000;
+
+    private double falsePositiveRate = 0.01;
+}
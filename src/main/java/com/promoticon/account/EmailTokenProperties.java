@@ -0,0 +1,20 @@
+package com.promoticon.account;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties("app.email-token")
+public class EmailTokenProperties {
+
+    /** HMAC 키 (Base64). 비워 두면 시작할 때마다 새로 만들므로 재시작하면 이전 링크는 모두 무효가 된다. */
+    private String secret;
+
+    private Duration confirmEmailValidity = Duration.ofDays(1);
+
+    private Duration loginLinkValidity = Duration.ofMinutes(15);
+}
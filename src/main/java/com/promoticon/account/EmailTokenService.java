@@ -0,0 +1,169 @@
+package com.promoticon.account;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.promoticon.domain.Account;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * 이메일 인증, 로그인 링크에 쓰는 토큰을 HMAC-SHA256 으로 서명해서 만든다.
+ * 토큰에 계정 id, 용도, 발급 시각이 들어 있으므로 발급할 때 DB 에 쓰지 않고 검증할 때도 DB 를 읽지 않는다.
+ * 로그인 링크는 한 번만 쓸 수 있도록 유효 기간 동안 사용한 토큰의 nonce 를 메모리에 기억한다. 인스턴스마다 따로 기억하므로
+ * 여러 대로 띄우면 다른 인스턴스에서 한 번 더 쓸 수 있다.
+ */
+@Slf4j
+@Service
+public class EmailTokenService {
+
+    public enum Purpose {
+        CONFIRM_EMAIL, LOGIN
+    }
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final byte VERSION = 1;
+    // version(1) + purpose(1) + account id(8) + 발급 시각(8) + nonce(8)
+    private static final int PAYLOAD_LENGTH = 26;
+    private static final int MAC_LENGTH = 32;
+    private static final Duration CLOCK_SKEW = Duration.ofMinutes(1);
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecretKeySpec key;
+    private final EmailTokenProperties properties;
+    private final Clock clock;
+    private final SecureRandom random = new SecureRandom();
+    private final ThreadLocal<Mac> macs;
+    private final Cache<Long, Boolean> usedLoginNonces;
+
+    @Autowired
+    public EmailTokenService(EmailTokenProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    EmailTokenService(EmailTokenProperties properties, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+        this.key = new SecretKeySpec(secret(properties), ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+        // 크기로 밀어내면 아직 유효한 토큰을 다시 쓸 수 있게 되므로 유효 기간으로만 지운다.
+        this.usedLoginNonces = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getLoginLinkValidity().plus(CLOCK_SKEW))
+                .build();
+    }
+
+    public String generate(Account account, Purpose purpose) {
+        ByteBuffer payload = ByteBuffer.allocate(PAYLOAD_LENGTH)
+                .put(VERSION)
+                .put((byte) purpose.ordinal())
+                .putLong(account.getId())
+                .putLong(clock.millis())
+                .putLong(random.nextLong());
+        byte[] bytes = payload.array();
+        return ENCODER.encodeToString(bytes) + "." + ENCODER.encodeToString(sign(bytes));
+    }
+
+    /**
+     * 서명과 유효 기간이 맞으면 토큰에 담긴 계정 id 를 돌려준다.
+     */
+    public Optional<Long> verify(String token, Purpose purpose) {
+        return parse(token, purpose).map(payload -> payload.getLong(2));
+    }
+
+    /**
+     * 로그인 링크를 검증하고 사용한 것으로 표시한다. 같은 토큰으로 다시 부르면 비어 있는 값을 돌려준다.
+     */
+    public Optional<Long> consumeLoginToken(String token) {
+        Optional<ByteBuffer> payload = parse(token, Purpose.LOGIN);
+        if (payload.isEmpty() || usedLoginNonces.asMap().putIfAbsent(payload.get().getLong(18), Boolean.TRUE) != null) {
+            return Optional.empty();
+        }
+        return Optional.of(payload.get().getLong(2));
+    }
+
+    private Optional<ByteBuffer> parse(String token, Purpose purpose) {
+        if (!StringUtils.hasText(token)) {
+            return Optional.empty();
+        }
+
+        int dot = token.indexOf('.');
+        if (dot < 0) {
+            return Optional.empty();
+        }
+        byte[] payload = decodeCanonical(token.substring(0, dot));
+        byte[] mac = decodeCanonical(token.substring(dot + 1));
+        if (payload == null || mac == null || payload.length != PAYLOAD_LENGTH || mac.length != MAC_LENGTH) {
+            return Optional.empty();
+        }
+        if (!MessageDigest.isEqual(sign(payload), mac)) {
+            return Optional.empty();
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        if (buffer.get() != VERSION || buffer.get() != purpose.ordinal()) {
+            return Optional.empty();
+        }
+        buffer.getLong();
+        long issuedAt = buffer.getLong();
+        long now = clock.millis();
+        if (issuedAt - now > CLOCK_SKEW.toMillis() || now - issuedAt > validity(purpose).toMillis()) {
+            return Optional.empty();
+        }
+        return Optional.of(buffer.rewind());
+    }
+
+    /**
+     * 디코더는 마지막 글자의 남는 비트와 '=' 패딩을 무시하므로 다시 인코딩했을 때 같은 문자열인 토큰만 받는다.
+     */
+    private static byte[] decodeCanonical(String text) {
+        try {
+            byte[] bytes = DECODER.decode(text);
+            return ENCODER.encodeToString(bytes).equals(text) ? bytes : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private Duration validity(Purpose purpose) {
+        return purpose == Purpose.LOGIN ? properties.getLoginLinkValidity() : properties.getConfirmEmailValidity();
+    }
+
+    private byte[] sign(byte[] payload) {
+        return macs.get().doFinal(payload);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] secret(EmailTokenProperties properties) {
+        if (StringUtils.hasText(properties.getSecret())) {
+            return Base64.getDecoder().decode(properties.getSecret());
+        }
+
+        log.warn("app.email-token.secret is not set, using a random key: links sent before a restart will be rejected");
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        return secret;
+    }
+}
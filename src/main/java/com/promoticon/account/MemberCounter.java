@@ -0,0 +1,72 @@
+package com.promoticon.account;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 이메일 인증을 마친 회원 수. 시작할 때 한 번 세고 인증이 커밋될 때마다 더하므로 읽을 때 DB 를 보지 않는다.
+ * 다른 인스턴스에서 인증한 회원이나 지운 계정은 반영하지 못하므로 주기적으로 DB 와 맞춘다.
+ */
+@Slf4j
+@Component
+public class MemberCounter {
+
+    private final LongAdder members = new LongAdder();
+    private final JdbcTemplate jdbcTemplate;
+
+    public MemberCounter(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        Gauge.builder("members.verified", members, LongAdder::sum).register(meterRegistry);
+    }
+
+    public long get() {
+        return members.sum();
+    }
+
+    public void increment() {
+        add(1);
+    }
+
+    /**
+     * 트랜잭션 안이면 커밋된 뒤에 더한다.
+     */
+    public void add(long count) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            members.add(count);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                members.add(count);
+            }
+        });
+    }
+
+    /**
+     * DB 에서 센 값과의 차이만큼 더한다. 세는 동안 커밋된 인증은 두 번 더해질 수 있지만 다음 번에 다시 맞춰진다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.member-counter.reconcile-interval-ms:600000}",
+            initialDelayString = "${app.member-counter.reconcile-interval-ms:600000}")
+    public void reconcile() {
+        long before = members.sum();
+        Long counted = jdbcTemplate.queryForObject("select count(*) from account where email_verified = true", Long.class);
+        long drift = (counted == null ? 0 : counted) - before;
+        members.add(drift);
+        if (drift != 0 && before != 0) {
+            log.info("member counter corrected by {} to {}", drift, members.sum());
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.promoticon.account;
+
+/**
+ * 상단 메뉴에 보여 주는 로그인 사용자 정보. 이름은 인증 주체에 있으므로 썸네일만 읽는다.
+ */
+public interface NavbarAccount {
+
+    Long getProfileThumbnailId();
+}
@@ -0,0 +1,47 @@
+package com.promoticon.account;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.view.RedirectView;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 화면을 그리는 요청에 로그인 사용자의 상단 메뉴를 넣는다. 캐시에서 꺼낸 HTML 은 {@code navbarHtml} 로, 캐시할 수 없으면
+ * 상단 메뉴 정보를 {@code navbar} 로 넣는다. 컨트롤러가 넣는 {@code account} 는 프로필 화면처럼 다른 사용자의 계정일 수 있어서 따로 둔다.
+ */
+@Component
+@RequiredArgsConstructor
+public class NavbarInterceptor implements HandlerInterceptor {
+
+    private final AccountRepository accountRepository;
+    private final NavbarRenderCache navbarRenderCache;
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler, ModelAndView modelAndView) {
+        if (modelAndView == null || isRedirect(modelAndView)) {
+            return;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserAccount) {
+            Long id = ((UserAccount) authentication.getPrincipal()).getId();
+            String html = navbarRenderCache.render(id, request, response);
+            if (html != null) {
+                modelAndView.addObject("navbarHtml", html);
+            } else {
+                modelAndView.addObject("navbar", accountRepository.findNavbarById(id));
+            }
+        }
+    }
+
+    private static boolean isRedirect(ModelAndView modelAndView) {
+        String viewName = modelAndView.getViewName();
+        return modelAndView.getView() instanceof RedirectView || (viewName != null && viewName.startsWith("redirect:"));
+    }
+}
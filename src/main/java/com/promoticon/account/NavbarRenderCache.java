@@ -0,0 +1,119 @@
+package com.promoticon.account;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.ApplicationContext;
+import org.springframework.security.web.csrf.CsrfToken;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.support.RequestContext;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring5.context.webmvc.SpringWebMvcThymeleafRequestContext;
+import org.thymeleaf.spring5.expression.ThymeleafEvaluationContext;
+import org.thymeleaf.spring5.naming.SpringContextVariableNames;
+
+import javax.servlet.ServletContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 로그인 사용자의 상단 메뉴를 계정과 로케일마다 한 번만 그려서 보관한다. 요청마다 다른 CSRF 토큰은 자리 표시자로 바꿔
+ * 저장했다가 꺼낼 때 현재 토큰으로 채운다. 상단 메뉴에 보이는 정보가 바뀌면 {@link #evict(Long)} 를 호출해야 한다.
+ */
+@Component
+public class NavbarRenderCache {
+
+    static final String FRAGMENTS_TEMPLATE = "fragments.html";
+    static final String NAVBAR_FRAGMENT = "main-nav-content";
+    static final String CSRF_PLACEHOLDER = "__navbar-csrf-token__";
+
+    // 로케일은 계정마다 한두 개뿐이므로 계정 id 를 키로 두고 로케일별 결과는 값의 작은 맵에 담는다.
+    private final Cache<Long, Map<Locale, String>> cache;
+    private final ITemplateEngine templateEngine;
+    private final AccountRepository accountRepository;
+    private final ApplicationContext applicationContext;
+    private final boolean enabled;
+
+    public NavbarRenderCache(NavbarRenderCacheProperties properties, ITemplateEngine templateEngine,
+                             AccountRepository accountRepository, ApplicationContext applicationContext,
+                             MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        this.templateEngine = templateEngine;
+        this.accountRepository = accountRepository;
+        this.applicationContext = applicationContext;
+        this.enabled = properties.isEnabled();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "navbar");
+    }
+
+    /**
+     * 그려 둔 상단 메뉴를 돌려준다. 링크에 세션 id 를 붙여야 하는 응답처럼 캐시할 수 없으면 null 을 돌려준다.
+     */
+    public String render(Long accountId, HttpServletRequest request, HttpServletResponse response) {
+        if (!enabled) {
+            return null;
+        }
+
+        String home = request.getContextPath() + "/";
+        if (!home.equals(response.encodeURL(home))) {
+            return null;
+        }
+
+        CsrfToken csrfToken = (CsrfToken) request.getAttribute(CsrfToken.class.getName());
+        String token = csrfToken == null ? null : csrfToken.getToken();
+        Locale locale = RequestContextUtils.getLocale(request);
+        String html = cache.get(accountId, id -> new ConcurrentHashMap<>(2)).computeIfAbsent(locale, key -> {
+            String rendered = renderFragment(accountId, locale, request, response);
+            return token == null ? rendered : rendered.replace(token, CSRF_PLACEHOLDER);
+        });
+        return token == null ? html : html.replace(CSRF_PLACEHOLDER, token);
+    }
+
+    public void evict(Long accountId) {
+        invalidate(accountId);
+
+        // 커밋 전에 다른 요청이 옛 값으로 다시 그려 넣었을 수 있으므로 트랜잭션이 끝난 뒤에 한 번 더 지운다.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(accountId);
+                }
+            });
+        }
+    }
+
+    private void invalidate(Long accountId) {
+        cache.invalidate(accountId);
+    }
+
+    private String renderFragment(Long accountId, Locale locale, HttpServletRequest request, HttpServletResponse response) {
+        ServletContext servletContext = request.getServletContext();
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("navbar", accountRepository.findNavbarById(accountId));
+
+        // ThymeleafView 와 같은 요청 컨텍스트를 넣어야 th:action 폼에 CSRF 토큰이 붙고 SpEL 에서 빈을 쓸 수 있다.
+        RequestContext requestContext = new RequestContext(request, response, servletContext, variables);
+        variables.put(SpringContextVariableNames.SPRING_REQUEST_CONTEXT, requestContext);
+        variables.put(SpringContextVariableNames.THYMELEAF_REQUEST_CONTEXT,
+                new SpringWebMvcThymeleafRequestContext(requestContext, request));
+        variables.put(ThymeleafEvaluationContext.THYMELEAF_EVALUATION_CONTEXT_CONTEXT_VARIABLE_NAME,
+                new ThymeleafEvaluationContext(applicationContext, null));
+
+        WebContext context = new WebContext(request, response, servletContext, locale, variables);
+        return templateEngine.process(FRAGMENTS_TEMPLATE, Set.of(NAVBAR_FRAGMENT), context);
+    }
+}
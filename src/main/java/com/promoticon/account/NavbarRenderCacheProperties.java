@@ -0,0 +1,21 @@
+package com.promoticon.account;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties("app.navbar-cache")
+public class NavbarRenderCacheProperties {
+
+    private boolean enabled = true;
+
+    /** 렌더링 결과를 보관하는 최대 계정 수 */
+    private long maximumSize = 10_000;
+
+    /** 다른 인스턴스에서 바뀐 정보가 늦게 반영되는 최대 시간 */
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+}
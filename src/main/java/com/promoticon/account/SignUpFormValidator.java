@@ -10,6 +10,7 @@ import org.springframework.validation.Validator;
 public class SignUpFormValidator implements Validator {
 
     private final AccountRepository accountRepository;
+    private final AccountBloomFilters accountBloomFilters;
 
     @Override
     public boolean supports(Class<?> clazz) {
@@ -19,11 +20,13 @@ public class SignUpFormValidator implements Validator {
     @Override
     public void validate(Object target, Errors errors) {
         SignUpForm signUpForm = (SignUpForm) target;
-        if (accountRepository.existsByEmail(signUpForm.getEmail())) {
+        if (accountBloomFilters.mightContainEmail(signUpForm.getEmail())
+                && accountRepository.existsByEmail(signUpForm.getEmail())) {
             errors.rejectValue("email", "invalid.email", new Object[]{signUpForm.getEmail()}, "이미 사용 중인 이메일입니다.");
         }
 
-        if (accountRepository.existsByUsername(signUpForm.getUsername())) {
+        if (accountBloomFilters.mightContainUsername(signUpForm.getUsername())
+                && accountRepository.existsByUsername(signUpForm.getUsername())) {
             errors.rejectValue("username", "invalid.username", new Object[]{signUpForm.getUsername()}, "이미 사용 중인 유저네임입니다.");
         }
     }
@@ -5,16 +5,29 @@ import lombok.Getter;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 
-import java.util.Collection;
 import java.util.List;
 
+/**
+ * 세션에 저장되는 인증 주체. 계정 엔티티 대신 식별자와 플래그만 가지며, 컨트롤러에는 {@link CurrentUser} 가 계정을 읽어서 넘겨준다.
+ */
 @Getter
 public class UserAccount extends User {
 
-    private Account account;
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+
+    private final boolean emailVerified;
 
     public UserAccount(Account account) {
         super(account.getUsername(), account.getPassword(), List.of(new SimpleGrantedAuthority("ROLE_USER")));
-        this.account = account;
+        this.id = account.getId();
+        this.emailVerified = account.isEmailVerified();
+    }
+
+    public UserAccount(UserAccount userAccount) {
+        super(userAccount.getUsername(), userAccount.getPassword(), userAccount.getAuthorities());
+        this.id = userAccount.getId();
+        this.emailVerified = userAccount.isEmailVerified();
     }
 }
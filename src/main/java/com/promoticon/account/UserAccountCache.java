@@ -0,0 +1,63 @@
+package com.promoticon.account;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.promoticon.domain.Account;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Function;
+
+/**
+ * 로그인 아이디(이메일 또는 유저네임)로 찾은 인증 주체를 잠시 보관한다. 엔티티 대신 패스워드 해시까지만 담은 {@link UserAccount} 를 두고,
+ * 인증이 끝나면 ProviderManager 가 주체의 패스워드를 지우므로 꺼낼 때마다 복사해서 준다.
+ * 계정 정보가 바뀌면 {@link #evict(Account)} 를 호출해야 한다.
+ */
+@Component
+public class UserAccountCache {
+
+    private final Cache<String, UserAccount> cache;
+
+    public UserAccountCache(UserAccountCacheProperties properties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "userAccounts");
+    }
+
+    public UserAccount get(String emailOrUsername, Function<String, UserAccount> loader) {
+        UserAccount userAccount = cache.get(emailOrUsername, loader);
+        return userAccount == null ? null : new UserAccount(userAccount);
+    }
+
+    public void evict(Account account) {
+        String email = account.getEmail();
+        String username = account.getUsername();
+        invalidate(email, username);
+
+        // 커밋 전에 다른 요청이 옛 값을 다시 읽어 캐시했을 수 있으므로 트랜잭션이 끝난 뒤에 한 번 더 지운다.
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(email, username);
+                }
+            });
+        }
+    }
+
+    private void invalidate(String email, String username) {
+        cache.invalidate(email);
+        cache.invalidate(username);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
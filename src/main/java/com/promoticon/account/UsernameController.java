@@ -0,0 +1,50 @@
+package com.promoticon.account;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 가입 화면의 유저네임 확인과 자동 완성에 쓰는 JSON API. DB 대신 {@link UsernameIndex} 에서 답하므로
+ * available 은 참고용이고, 실제 가입할 때는 다시 검증한다. 한두 글자로 전체 유저네임을 훑지 못하게 유저네임의 최소 길이만큼
+ * 입력해야 답한다.
+ */
+@RestController
+@RequiredArgsConstructor
+public class UsernameController {
+
+    public static final String USERNAMES_URL = "/usernames";
+
+    private static final int MIN_PREFIX_LENGTH = 3;
+
+    private static final int MAX_LIMIT = 20;
+
+    private final UsernameIndex usernameIndex;
+
+    @GetMapping(USERNAMES_URL)
+    public UsernameSearch search(@RequestParam String prefix, @RequestParam(defaultValue = "10") int limit) {
+        if (prefix.isBlank() || prefix.length() < MIN_PREFIX_LENGTH) {
+            return new UsernameSearch(prefix, false, Collections.emptyList());
+        }
+
+        List<String> matches = usernameIndex.findByPrefix(prefix, Math.max(1, Math.min(limit, MAX_LIMIT)));
+        return new UsernameSearch(prefix, !usernameIndex.contains(prefix), matches);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class UsernameSearch {
+
+        private final String prefix;
+
+        private final boolean available;
+
+        private final List<String> usernames;
+    }
+}
@@ -0,0 +1,108 @@
+package com.promoticon.account;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+
+/**
+ * 유저네임 자동 완성과 사용 가능 여부 확인에 쓰는 정렬된 인덱스. skip list 라서 읽는 쪽은 락 없이 바뀌는 중에도 읽을 수 있고,
+ * 접두어 검색은 tailSet 에서 접두어가 달라질 때까지만 훑는다. 변경은 커밋된 뒤에 반영한다.
+ * 인덱스를 거치지 않은 변경(직접 고친 DB, 반영 전에 죽은 노드)이 남지 않도록 주기적으로 새로 만들어 바꿔 끼운다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UsernameIndex {
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile NavigableSet<String> usernames = new ConcurrentSkipListSet<>();
+    private volatile NavigableSet<String> building;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        rebuild();
+    }
+
+    @Scheduled(cron = "${app.username-index.rebuild-cron:0 15 4 * * *}")
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        NavigableSet<String> rebuilt = new ConcurrentSkipListSet<>();
+        // 읽는 동안 커밋된 변경도 새 인덱스에 들어가도록 먼저 걸어 둔다.
+        building = rebuilt;
+
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streaming.setFetchSize(1000);
+        streaming.query("select username from account where username is not null", rs -> {
+            rebuilt.add(rs.getString(1));
+        });
+
+        usernames = rebuilt;
+        building = null;
+        log.info("username index built with {} usernames in {} ms", rebuilt.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public boolean contains(String username) {
+        return usernames.contains(username);
+    }
+
+    public List<String> findByPrefix(String prefix, int limit) {
+        List<String> matches = new ArrayList<>(Math.min(limit, 16));
+        for (String username : usernames.tailSet(prefix, true)) {
+            if (matches.size() >= limit || !username.startsWith(prefix)) {
+                break;
+            }
+            matches.add(username);
+        }
+        return matches;
+    }
+
+    public void add(String username) {
+        afterCommit(() -> forEachSet(set -> set.add(username)));
+    }
+
+    public void rename(String oldUsername, String newUsername) {
+        afterCommit(() -> forEachSet(set -> {
+            set.add(newUsername);
+            set.remove(oldUsername);
+        }));
+    }
+
+    public void remove(String username) {
+        afterCommit(() -> forEachSet(set -> set.remove(username)));
+    }
+
+    private void forEachSet(Consumer<NavigableSet<String>> change) {
+        for (NavigableSet<String> set : Arrays.asList(usernames, building)) {
+            if (set != null) {
+                change.accept(set);
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
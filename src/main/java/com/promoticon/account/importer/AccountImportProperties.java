@@ -0,0 +1,29 @@
+package com.promoticon.account.importer;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties("app.import")
+public class AccountImportProperties {
+
+    /** 가져올 파일. 확장자가 .jsonl 이면 JSON Lines, 아니면 email,username,password 헤더가 있는 CSV 로 읽는다. */
+    private String file;
+
+    /** 한 트랜잭션으로 넣는 행 수 */
+    private int chunkSize = 1000;
+
+    /** 패스워드 해싱 스레드 수 */
+    private int hashThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    /** 가져온 계정에 가입 인증 메일을 아웃박스로 보낸다. */
+    private boolean sendConfirmation;
+
+    /** 파트너가 이미 인증한 이메일이면 인증된 계정으로 넣는다. 이 경우 인증 메일은 보내지 않는다. */
+    private boolean markVerified;
+
+    /** 다 가져오면 애플리케이션을 끝낸다. */
+    private boolean exitWhenDone = true;
+}
@@ -0,0 +1,35 @@
+package com.promoticon.account.importer;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * {@code app.import.file} 이 있으면 시작할 때 계정을 가져온다. 웹 서버 없이 가져오고 끝내려면 다음처럼 실행한다.
+ * <pre>
+ * java -jar promoticon.jar --spring.main.web-application-type=none --app.import.file=accounts.csv
+ * </pre>
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.import", name = "file")
+public class AccountImportRunner implements ApplicationRunner {
+
+    private final AccountImporter accountImporter;
+    private final AccountImportProperties properties;
+    private final ConfigurableApplicationContext applicationContext;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        accountImporter.importFile(Path.of(properties.getFile()));
+        if (properties.isExitWhenDone()) {
+            System.exit(SpringApplication.exit(applicationContext));
+        }
+    }
+}
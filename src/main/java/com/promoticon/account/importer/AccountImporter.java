@@ -0,0 +1,310 @@
+package com.promoticon.account.importer;
+
+import com.promoticon.account.AccountBloomFilters;
+import com.promoticon.account.AccountService;
+import com.promoticon.account.MemberCounter;
+import com.promoticon.account.UsernameIndex;
+import com.promoticon.config.AppConfig;
+import com.promoticon.config.PasswordHashingProperties;
+import com.promoticon.domain.Account;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * 파일에서 계정을 대량으로 가져온다. 파일은 줄 단위로 읽어 청크마다 처리한다.
+ * 청크 하나는 검증과 중복 제거, 이메일과 유저네임 일괄 중복 조회, 패스워드 병렬 해싱을 거친 뒤 JDBC 배치로 한 트랜잭션에 넣는다.
+ * 커밋할 때마다 마지막 줄 번호를 체크포인트 파일에 남기므로 실패한 뒤 다시 실행하면 그다음 줄부터 이어서 가져온다.
+ * 이미 있는 계정은 건너뛰기 때문에 체크포인트가 없어도 다시 실행해도 된다.
+ * 해싱은 로그인이 쓰는 해싱 풀을 거치지 않고 가져오기 스레드에서 직접 하므로 가져오는 동안에도 로그인이 밀리지 않는다.
+ */
+@Slf4j
+@Component
+public class AccountImporter {
+
+    static final String INSERT_ACCOUNT_SQL = "insert into account (id, email, username, password, email_verified, joined_at, " +
+            "created_at, emoticon_created_by_web, emoticon_created_by_email, feedback_updated_by_web, feedback_updated_by_email) " +
+            "values (?, ?, ?, ?, ?, ?, ?, true, false, true, false)";
+
+    private static final Pattern USERNAME = Pattern.compile("^[ㄱ-ㅎ가-힣a-z0-9_-]{3,20}$");
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+$");
+    private static final String NOOP_PREFIX = "{noop}";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final EntityManager entityManager;
+    private final PasswordEncoder passwordEncoder;
+    private final Set<String> encoderIds;
+    private final AccountService accountService;
+    private final AccountBloomFilters accountBloomFilters;
+    private final UsernameIndex usernameIndex;
+    private final MemberCounter memberCounter;
+    private final AccountImportProperties properties;
+
+    public AccountImporter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                           EntityManagerFactory entityManagerFactory, EntityManager entityManager,
+                           PasswordHashingProperties passwordHashingProperties, AccountService accountService,
+                           AccountBloomFilters accountBloomFilters, UsernameIndex usernameIndex,
+                           MemberCounter memberCounter, AccountImportProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.entityManager = entityManager;
+        Map<String, PasswordEncoder> encoders = AppConfig.passwordEncoders(passwordHashingProperties.getBcryptStrength());
+        encoders.remove("noop");
+        this.passwordEncoder = AppConfig.delegatingPasswordEncoder(encoders);
+        this.encoderIds = Set.copyOf(encoders.keySet());
+        this.accountService = accountService;
+        this.accountBloomFilters = accountBloomFilters;
+        this.usernameIndex = usernameIndex;
+        this.memberCounter = memberCounter;
+        this.properties = properties;
+    }
+
+    public ImportResult importFile(Path file) {
+        Path checkpoint = checkpointOf(file);
+        long resumeAfter = readCheckpoint(checkpoint);
+        if (resumeAfter > 0) {
+            log.info("resuming account import of {} after line {}", file, resumeAfter);
+        }
+
+        ImportResult result = new ImportResult();
+        long start = System.nanoTime();
+        ExecutorService hashing = Executors.newFixedThreadPool(properties.getHashThreads(), new CustomizableThreadFactory("import-hash-"));
+        try (ImportRecordReader reader = new ImportRecordReader(file)) {
+            List<ImportRecord> chunk = new ArrayList<>(properties.getChunkSize());
+            ImportRecord record;
+            while ((record = reader.next()) != null) {
+                if (record.getLine() <= resumeAfter) {
+                    result.skip();
+                    continue;
+                }
+                chunk.add(record);
+                if (chunk.size() >= properties.getChunkSize()) {
+                    importChunk(chunk, hashing, result, checkpoint, start);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, hashing, result, checkpoint, start);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            hashing.shutdownNow();
+        }
+
+        deleteCheckpoint(checkpoint);
+        log.info("account import of {} finished in {} ms: {}", file, (System.nanoTime() - start) / 1_000_000, result);
+        return result;
+    }
+
+    private void importChunk(List<ImportRecord> chunk, ExecutorService hashing, ImportResult result, Path checkpoint, long start) {
+        List<ImportRecord> valid = new ArrayList<>(chunk.size());
+        for (ImportRecord record : chunk) {
+            if (isValid(record)) {
+                valid.add(record);
+            } else {
+                log.debug("invalid account at line {}", record.getLine());
+            }
+        }
+        long invalid = chunk.size() - valid.size();
+
+        List<ImportRecord> unique = removeDuplicates(valid);
+        List<String> passwords = hash(unique, hashing);
+
+        transactionTemplate.executeWithoutResult(status -> insert(unique, passwords));
+        // JDBC 로 넣은 행은 Hibernate 가 모르므로 없다고 캐시해 둔 이메일 조회 결과를 지운다.
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache().evictQueryRegion(Account.BY_EMAIL_CACHE_REGION);
+
+        long lastLine = chunk.get(chunk.size() - 1).getLine();
+        writeCheckpoint(checkpoint, lastLine);
+        result.add(unique.size(), valid.size() - unique.size(), invalid, lastLine);
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        log.info("account import: line {}, {} imported, {} duplicated, {} invalid ({} rows/s)", lastLine,
+                result.getImported(), result.getDuplicated(), result.getInvalid(),
+                Math.round((result.getImported() + result.getDuplicated() + result.getInvalid()) / Math.max(seconds, 0.001)));
+    }
+
+    // {noop} 은 평문 패스워드를 테이블에 남기므로 받지 않는다.
+    private boolean isValid(ImportRecord record) {
+        String password = record.getPassword();
+        return record.getUsername() != null && USERNAME.matcher(record.getUsername()).matches()
+                && record.getEmail() != null && EMAIL.matcher(record.getEmail()).matches()
+                && password != null && !password.startsWith(NOOP_PREFIX)
+                && (isEncoded(password) || (password.length() >= 8 && password.length() <= 20));
+    }
+
+    // 다른 서비스에서 옮겨 오는 해시는 {bcrypt}... 처럼 AppConfig 에 등록된 id 가 붙어 있을 때만 그대로 쓰고, 나머지는 평문으로 보고 해싱한다.
+    private boolean isEncoded(String password) {
+        int end = password.indexOf('}');
+        return password.startsWith("{") && end > 1 && encoderIds.contains(password.substring(1, end));
+    }
+
+    /**
+     * 청크 안의 중복과 이미 가입된 이메일, 유저네임을 뺀다. DB 조회는 청크마다 이메일 한 번, 유저네임 한 번이다.
+     * 받아들인 행의 이메일과 유저네임만 기억해서, 빠진 행 때문에 뒤의 다른 행까지 빠지지 않게 한다.
+     */
+    private List<ImportRecord> removeDuplicates(List<ImportRecord> records) {
+        if (records.isEmpty()) {
+            return records;
+        }
+
+        Set<String> emails = existing("select email from account where email in (:values)", records, ImportRecord::getEmail);
+        Set<String> usernames = existing("select username from account where username in (:values)", records, ImportRecord::getUsername);
+
+        List<ImportRecord> unique = new ArrayList<>(records.size());
+        for (ImportRecord record : records) {
+            if (!emails.contains(record.getEmail()) && !usernames.contains(record.getUsername())) {
+                emails.add(record.getEmail());
+                usernames.add(record.getUsername());
+                unique.add(record);
+            }
+        }
+        return unique;
+    }
+
+    private Set<String> existing(String sql, List<ImportRecord> records, Function<ImportRecord, String> column) {
+        List<String> values = new ArrayList<>(records.size());
+        records.forEach(record -> values.add(column.apply(record)));
+        return new HashSet<>(namedParameterJdbcTemplate.queryForList(sql, Map.of("values", values), String.class));
+    }
+
+    private List<String> hash(List<ImportRecord> records, ExecutorService hashing) {
+        List<Future<String>> futures = new ArrayList<>(records.size());
+        for (ImportRecord record : records) {
+            String password = record.getPassword();
+            futures.add(hashing.submit(() -> isEncoded(password) ? password : passwordEncoder.encode(password)));
+        }
+
+        List<String> passwords = new ArrayList<>(records.size());
+        try {
+            for (Future<String> future : futures) {
+                passwords.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("패스워드 해싱이 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("패스워드 해싱에 실패했습니다.", e.getCause());
+        }
+        return passwords;
+    }
+
+    private void insert(List<ImportRecord> records, List<String> passwords) {
+        if (records.isEmpty()) {
+            return;
+        }
+
+        // id 는 엔티티와 같은 pooled-lo 생성기에서 받아야 애플리케이션이 저장하는 계정과 겹치지 않는다.
+        IdentifierGenerator generator = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getMetamodel().entityPersister(Account.class).getIdentifierGenerator();
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+
+        List<Account> accounts = new ArrayList<>(records.size());
+        boolean verified = properties.isMarkVerified();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime joinedAt = verified ? now : null;
+        // 인증 메일을 받지 못한 미인증 계정은 PurgeJob 이 버려진 가입으로 보고 지우지 않도록 created_at 을 비워 둔다.
+        LocalDateTime createdAt = verified || properties.isSendConfirmation() ? now : null;
+        for (int i = 0; i < records.size(); i++) {
+            ImportRecord record = records.get(i);
+            accounts.add(Account.builder()
+                    .id((Long) generator.generate(session, null))
+                    .email(record.getEmail())
+                    .username(record.getUsername())
+                    .password(passwords.get(i))
+                    .emailVerified(verified)
+                    .joinedAt(joinedAt)
+                    .createdAt(createdAt)
+                    .build());
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_ACCOUNT_SQL, accounts, accounts.size(), (ps, account) -> {
+            ps.setLong(1, account.getId());
+            ps.setString(2, account.getEmail());
+            ps.setString(3, account.getUsername());
+            ps.setString(4, account.getPassword());
+            ps.setBoolean(5, account.isEmailVerified());
+            ps.setTimestamp(6, account.getJoinedAt() == null ? null : Timestamp.valueOf(account.getJoinedAt()));
+            ps.setTimestamp(7, account.getCreatedAt() == null ? null : Timestamp.valueOf(account.getCreatedAt()));
+        });
+
+        for (Account account : accounts) {
+            accountBloomFilters.putEmail(account.getEmail());
+            accountBloomFilters.putUsername(account.getUsername());
+            usernameIndex.add(account.getUsername());
+            // 인증 메일은 같은 트랜잭션에서 아웃박스에 넣기만 하고 발송은 MailDispatcher 가 천천히 한다.
+            if (properties.isSendConfirmation() && !verified) {
+                accountService.sendSignUpConfirmEmail(account);
+            }
+        }
+        // 인증된 것으로 넣은 계정은 커밋된 뒤에 회원 수에 더한다.
+        if (verified) {
+            memberCounter.add(accounts.size());
+        }
+    }
+
+    static Path checkpointOf(Path file) {
+        return file.resolveSibling(file.getFileName() + ".checkpoint");
+    }
+
+    private static long readCheckpoint(Path checkpoint) {
+        if (!Files.exists(checkpoint)) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(Files.readString(checkpoint, StandardCharsets.UTF_8).trim());
+        } catch (IOException | NumberFormatException e) {
+            throw new IllegalStateException("체크포인트 파일을 읽을 수 없습니다: " + checkpoint, e);
+        }
+    }
+
+    private static void writeCheckpoint(Path checkpoint, long line) {
+        try {
+            Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+            Files.writeString(temp, String.valueOf(line), StandardCharsets.UTF_8);
+            Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void deleteCheckpoint(Path checkpoint) {
+        try {
+            Files.deleteIfExists(checkpoint);
+        } catch (IOException e) {
+            log.warn("failed to delete checkpoint {}", checkpoint, e);
+        }
+    }
+}
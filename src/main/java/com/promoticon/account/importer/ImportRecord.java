@@ -0,0 +1,17 @@
+package com.promoticon.account.importer;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class ImportRecord {
+
+    private final long line;
+
+    private final String email;
+
+    private final String username;
+
+    private final String password;
+}
@@ -0,0 +1,135 @@
+package com.promoticon.account.importer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 가져올 파일을 한 줄씩 읽는다. 파일 전체를 메모리에 올리지 않으며, 줄 번호는 재시작 위치로 쓴다.
+ * CSV 는 첫 줄이 헤더이고 따옴표로 감싼 값을 지원하지만 값 안의 줄바꿈은 지원하지 않는다.
+ */
+class ImportRecordReader implements Closeable {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final BufferedReader reader;
+    private final boolean jsonLines;
+    private int emailColumn = -1;
+    private int usernameColumn = -1;
+    private int passwordColumn = -1;
+    private long line;
+
+    ImportRecordReader(Path file) throws IOException {
+        this.reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        this.jsonLines = file.getFileName().toString().endsWith(".jsonl");
+        if (!jsonLines) {
+            readHeader();
+        }
+    }
+
+    /**
+     * 다음 레코드를 돌려준다. 형식이 깨진 줄은 값이 비어 있는 레코드로 돌려주고, 파일이 끝나면 null 이다.
+     */
+    ImportRecord next() {
+        String text = readLine();
+        while (text != null && text.isBlank()) {
+            text = readLine();
+        }
+        if (text == null) {
+            return null;
+        }
+        return jsonLines ? parseJson(text) : parseCsv(text);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void readHeader() {
+        String header = readLine();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV 헤더가 없습니다.");
+        }
+        List<String> columns = splitCsv(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        for (int i = 0; i < columns.size(); i++) {
+            switch (columns.get(i).trim().toLowerCase()) {
+                case "email": emailColumn = i; break;
+                case "username": usernameColumn = i; break;
+                case "password": passwordColumn = i; break;
+                default:
+            }
+        }
+        if (emailColumn < 0 || usernameColumn < 0 || passwordColumn < 0) {
+            throw new IllegalArgumentException("CSV 헤더에 email, username, password 가 모두 있어야 합니다: " + header);
+        }
+    }
+
+    private ImportRecord parseCsv(String text) {
+        List<String> values = splitCsv(text);
+        return new ImportRecord(line, value(values, emailColumn), value(values, usernameColumn), value(values, passwordColumn));
+    }
+
+    private ImportRecord parseJson(String text) {
+        try {
+            JsonNode node = OBJECT_MAPPER.readTree(text);
+            return new ImportRecord(line, node.path("email").asText(null), node.path("username").asText(null),
+                    node.path("password").asText(null));
+        } catch (IOException e) {
+            return new ImportRecord(line, null, null, null);
+        }
+    }
+
+    private String readLine() {
+        try {
+            String text = reader.readLine();
+            if (text != null) {
+                line++;
+            }
+            return text;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String value(List<String> values, int column) {
+        return column < values.size() ? values.get(column).trim() : null;
+    }
+
+    static List<String> splitCsv(String text) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+}
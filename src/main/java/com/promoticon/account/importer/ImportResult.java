@@ -0,0 +1,35 @@
+package com.promoticon.account.importer;
+
+import lombok.Getter;
+
+@Getter
+public class ImportResult {
+
+    /** 재시작해서 체크포인트까지 건너뛴 줄 수 */
+    private long skipped;
+
+    private long imported;
+
+    private long duplicated;
+
+    private long invalid;
+
+    private long lastLine;
+
+    void skip() {
+        skipped++;
+    }
+
+    void add(long imported, long duplicated, long invalid, long lastLine) {
+        this.imported += imported;
+        this.duplicated += duplicated;
+        this.invalid += invalid;
+        this.lastLine = lastLine;
+    }
+
+    @Override
+    public String toString() {
+        return "imported=" + imported + ", duplicated=" + duplicated + ", invalid=" + invalid
+                + ", skipped=" + skipped + ", lastLine=" + lastLine;
+    }
+}
@@ -0,0 +1,14 @@
+package com.promoticon.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties("app")
+public class AppProperties {
+
+    /** 메일에 넣는 링크의 기준 주소 */
+    private String host = "http://localhost:8080";
+}
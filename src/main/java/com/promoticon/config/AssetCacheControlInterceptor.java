@@ -0,0 +1,39 @@
+package com.promoticon.config;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 에셋 응답의 Cache-Control 을 주소에 따라 정한다. 주소에 내용 해시가 있으면 내용이 바뀌지 않으므로 1년 동안 다시 묻지 않게 하고,
+ * 해시 없이 요청한 주소는 배포하면 내용이 바뀌므로 잠깐만 캐시한다.
+ */
+class AssetCacheControlInterceptor implements HandlerInterceptor {
+
+    /**
+     * Spring 5.3 의 CacheControl 에는 immutable 이 없어서 직접 붙인다.
+     */
+    static final CacheControl VERSIONED = new CacheControl() {
+        @Override
+        public String getHeaderValue() {
+            return CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().getHeaderValue() + ", immutable";
+        }
+    };
+
+    static final CacheControl UNVERSIONED = CacheControl.maxAge(10, TimeUnit.MINUTES).cachePublic();
+
+    // VersionResourceResolver 가 붙이는 -{md5} 와 build.js 가 폰트 이름에 넣는 .{sha256 앞 16자리}
+    private static final Pattern CONTENT_HASH = Pattern.compile("(-[0-9a-f]{32}|\\.[0-9a-f]{16})\\.[^/.]+$");
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        CacheControl cacheControl = CONTENT_HASH.matcher(request.getRequestURI()).find() ? VERSIONED : UNVERSIONED;
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        return true;
+    }
+}
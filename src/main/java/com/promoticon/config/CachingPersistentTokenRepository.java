@@ -0,0 +1,105 @@
+package com.promoticon.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.web.authentication.rememberme.JdbcTokenRepositoryImpl;
+import org.springframework.security.web.authentication.rememberme.PersistentRememberMeToken;
+import org.springframework.security.web.authentication.rememberme.PersistentTokenRepository;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * remember-me 토큰을 메모리에서 조회해서 자동 로그인마다 하던 select 를 없앤다. 캐시는 인스턴스마다 따로 가지므로
+ * 여러 대로 띄울 때는 세션 고정(sticky session)이 필요하다.
+ * <p>
+ * 토큰 갱신은 DB 에 바로 쓰고 나서 캐시에 반영한다. 갱신을 모아서 나중에 쓰면 쓰기 전에 프로세스가 죽었을 때 새 토큰을 받은
+ * 브라우저가 재시작 뒤 DB 의 이전 토큰과 맞지 않아 쿠키 도용으로 처리되고 그 사용자의 remember-me 가 모두 지워진다.
+ * 잃어버린 갱신은 DB 에 흔적이 없어서 도용과 구분할 수 없으므로, 갱신마다 update 한 번을 감수하고 도용 검사는 그대로 둔다.
+ */
+@Component
+public class CachingPersistentTokenRepository implements PersistentTokenRepository {
+
+    static final String SELECT_UNUSED_SQL = "select series from persistent_logins where last_used < ? order by last_used limit ?";
+    static final String DELETE_UNUSED_SQL = "delete from persistent_logins where series in (:series) and last_used < :cutoff";
+    static final String DELETE_USERS_TOKENS_SQL = "delete from persistent_logins where username in (:usernames)";
+
+    private final JdbcTokenRepositoryImpl delegate;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final Cache<String, PersistentRememberMeToken> tokens;
+
+    public CachingPersistentTokenRepository(DataSource dataSource,
+                                            @Value("${app.remember-me.cache-size:10000}") long cacheSize) {
+        this.delegate = new JdbcTokenRepositoryImpl();
+        this.delegate.setDataSource(dataSource);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.tokens = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .build();
+    }
+
+    @Override
+    public synchronized void createNewToken(PersistentRememberMeToken token) {
+        delegate.createNewToken(token);
+        tokens.put(token.getSeries(), token);
+    }
+
+    @Override
+    public synchronized void updateToken(String series, String tokenValue, Date lastUsed) {
+        PersistentRememberMeToken current = getTokenForSeries(series);
+        if (current == null) {
+            return;
+        }
+
+        delegate.updateToken(series, tokenValue, lastUsed);
+        tokens.put(series, new PersistentRememberMeToken(current.getUsername(), series, tokenValue, lastUsed));
+    }
+
+    @Override
+    public PersistentRememberMeToken getTokenForSeries(String seriesId) {
+        return tokens.get(seriesId, delegate::getTokenForSeries);
+    }
+
+    @Override
+    public synchronized void removeUserTokens(String username) {
+        tokens.asMap().values().removeIf(token -> username.equals(token.getUsername()));
+        delegate.removeUserTokens(username);
+    }
+
+    public synchronized void removeUsersTokens(Collection<String> usernames) {
+        if (usernames.isEmpty()) {
+            return;
+        }
+
+        Set<String> targets = new HashSet<>(usernames);
+        tokens.asMap().values().removeIf(token -> targets.contains(token.getUsername()));
+        namedParameterJdbcTemplate.update(DELETE_USERS_TOKENS_SQL, Map.of("usernames", targets));
+    }
+
+    /**
+     * cutoff 이후로 쓰이지 않은 토큰을 오래된 순으로 최대 limit 개 지우고 지운 개수를 돌려준다.
+     */
+    public synchronized int removeTokensUnusedSince(Date cutoff, int limit) {
+        Timestamp before = new Timestamp(cutoff.getTime());
+        List<String> series = jdbcTemplate.queryForList(SELECT_UNUSED_SQL, String.class, before, limit);
+        if (series.isEmpty()) {
+            return 0;
+        }
+
+        int deleted = namedParameterJdbcTemplate.update(DELETE_UNUSED_SQL, Map.of("series", series, "cutoff", before));
+        tokens.invalidateAll(series);
+        return deleted;
+    }
+}
@@ -0,0 +1,27 @@
+package com.promoticon.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties("app.password-hashing")
+public class PasswordHashingProperties {
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    private int queueCapacity = 100;
+
+    /**
+     * 큐에서 기다리는 시간을 포함한 최대 대기 시간.
+     */
+    private Duration timeout = Duration.ofSeconds(5);
+
+    /**
+     * 이보다 낮은 강도로 저장된 해시는 로그인할 때 다시 해싱한다.
+     */
+    private int bcryptStrength = 10;
+}
@@ -0,0 +1,56 @@
+package com.promoticon.config;
+
+import com.promoticon.account.NavbarInterceptor;
+import com.promoticon.account.UsernameController;
+import com.promoticon.image.ByteBufferHttpMessageConverter;
+import com.promoticon.ratelimit.ClientIpRateLimitInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.web.WebProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.util.List;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    static final String ASSETS_URL = "/assets/";
+
+    private final ClientIpRateLimitInterceptor clientIpRateLimitInterceptor;
+    private final NavbarInterceptor navbarInterceptor;
+    private final WebProperties webProperties;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(clientIpRateLimitInterceptor)
+                .addPathPatterns("/sign-up", "/email-login", UsernameController.USERNAMES_URL);
+        // 템플릿의 @{/assets/...} 링크는 ResourceUrlEncodingFilter 가 내용 해시를 붙인 주소로 바뀐다.
+        registry.addInterceptor(new AssetCacheControlInterceptor())
+                .addPathPatterns(ASSETS_URL + "**");
+        registry.addInterceptor(navbarInterceptor)
+                .excludePathPatterns(ASSETS_URL + "**", "/profile-image/**", UsernameController.USERNAMES_URL);
+    }
+
+    /**
+     * 프런트엔드 빌드(src/main/frontend)가 만든 묶음 파일을 내보낸다. 브라우저가 받을 수 있으면 미리 압축해 둔 .br, .gz 를 보낸다.
+     */
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler(ASSETS_URL + "**")
+                .addResourceLocations("classpath:/static" + ASSETS_URL)
+                .resourceChain(webProperties.getResources().getChain().isCache())
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new ByteBufferHttpMessageConverter());
+    }
+}
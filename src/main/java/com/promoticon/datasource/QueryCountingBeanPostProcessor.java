@@ -0,0 +1,26 @@
+package com.promoticon.datasource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * 애플리케이션이 쓰는 기본 DataSource 를 {@link QueryCountingDataSource} 로 감싼다.
+ * replica 라우팅을 쓸 때도 라우팅 DataSource 만 감싸므로 한 문장을 두 번 세지 않는다.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.query-stats", name = "enabled", matchIfMissing = true)
+public class QueryCountingBeanPostProcessor implements BeanPostProcessor {
+
+    static final String DATA_SOURCE_BEAN_NAME = "dataSource";
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource && DATA_SOURCE_BEAN_NAME.equals(beanName) && !(bean instanceof QueryCountingDataSource)) {
+            return new QueryCountingDataSource((DataSource) bean);
+        }
+        return bean;
+    }
+}
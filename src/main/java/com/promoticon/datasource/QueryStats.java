@@ -0,0 +1,96 @@
+package com.promoticon.datasource;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 한 범위(보통 HTTP 요청 하나)에서 실행한 SQL 문 수, JDBC 시간, 같은 SQL 을 되풀이한 횟수를 센다.
+ * {@link #start()} 한 스레드에서 {@link QueryCountingDataSource} 를 거친 문장만 세며, 범위가 없으면 아무것도 하지 않는다.
+ * <pre>
+ * try (QueryStats stats = QueryStats.start()) {
+ *     ...
+ * }
+ * </pre>
+ */
+public class QueryStats implements AutoCloseable {
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private final QueryStats previous;
+    private final Map<String, Integer> executions = new LinkedHashMap<>();
+    private int statements;
+    private long jdbcNanos;
+
+    private QueryStats(QueryStats previous) {
+        this.previous = previous;
+    }
+
+    public static QueryStats start() {
+        QueryStats stats = new QueryStats(CURRENT.get());
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    static void record(String sql, long nanos) {
+        for (QueryStats stats = CURRENT.get(); stats != null; stats = stats.previous) {
+            stats.statements++;
+            stats.jdbcNanos += nanos;
+            stats.executions.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public Duration getJdbcTime() {
+        return Duration.ofNanos(jdbcNanos);
+    }
+
+    /**
+     * 같은 SQL 을 처음 한 번 뒤로 더 실행한 횟수의 합. N+1 이면 N 이 된다.
+     */
+    public int getDuplicates() {
+        int duplicates = 0;
+        for (int count : executions.values()) {
+            duplicates += count - 1;
+        }
+        return duplicates;
+    }
+
+    /**
+     * {@code times} 번 이상 실행한 SQL 과 그 횟수.
+     */
+    public Map<String, Integer> getRepeated(int times) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        executions.forEach((sql, count) -> {
+            if (count >= times) {
+                repeated.put(sql, count);
+            }
+        });
+        return repeated;
+    }
+
+    public Map<String, Integer> getExecutions() {
+        return executions;
+    }
+
+    @Override
+    public String toString() {
+        return statements + " statements, " + getJdbcTime().toMillis() + " ms, " + getDuplicates() + " duplicates";
+    }
+}
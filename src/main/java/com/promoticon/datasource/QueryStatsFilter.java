@@ -0,0 +1,69 @@
+package com.promoticon.datasource;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * 요청마다 실행한 SQL 을 세서 요청 속성 {@link #STATS_ATTRIBUTE} 에 남기고 URI 패턴별 메트릭으로 보낸다.
+ * 문장 수, JDBC 시간, 같은 SQL 반복이 기준을 넘는 요청은 로그로 남긴다. 시큐리티 필터의 조회도 세도록 그보다 먼저 둔다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.query-stats", name = "enabled", matchIfMissing = true)
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 10)
+public class QueryStatsFilter extends OncePerRequestFilter {
+
+    public static final String STATS_ATTRIBUTE = QueryStats.class.getName();
+
+    private final QueryStatsProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (QueryStats stats = QueryStats.start()) {
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                request.setAttribute(STATS_ATTRIBUTE, stats);
+                record(request, stats);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, QueryStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+
+        DistributionSummary.builder("jdbc.request.statements").tag("uri", uri).register(meterRegistry)
+                .record(stats.getStatements());
+        DistributionSummary.builder("jdbc.request.duplicates").tag("uri", uri).register(meterRegistry)
+                .record(stats.getDuplicates());
+        Timer.builder("jdbc.request.time").tag("uri", uri).register(meterRegistry)
+                .record(stats.getJdbcTime());
+
+        Map<String, Integer> repeated = stats.getRepeated(properties.getRepeatThreshold());
+        if (stats.getStatements() > properties.getStatementThreshold()
+                || stats.getJdbcTime().compareTo(properties.getJdbcTimeThreshold()) > 0
+                || !repeated.isEmpty()) {
+            log.warn("{} {} ran {}, repeated: {}", request.getMethod(), uri, stats, repeated);
+        }
+    }
+}
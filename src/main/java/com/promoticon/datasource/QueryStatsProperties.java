@@ -0,0 +1,25 @@
+package com.promoticon.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties("app.query-stats")
+public class QueryStatsProperties {
+
+    /** 끄면 DataSource 를 감싸지 않고 필터도 등록하지 않아서 요청별로 세지 않는다. */
+    private boolean enabled = true;
+
+    /** 요청 하나에서 이보다 많은 문장을 실행하면 로그를 남긴다. */
+    private int statementThreshold = 20;
+
+    /** 요청 하나의 JDBC 시간이 이보다 길면 로그를 남긴다. */
+    private Duration jdbcTimeThreshold = Duration.ofMillis(200);
+
+    /** 같은 SQL 을 이 횟수 이상 실행하면 N+1 로 보고 로그를 남긴다. */
+    private int repeatThreshold = 3;
+}
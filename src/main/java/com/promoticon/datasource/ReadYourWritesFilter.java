@@ -0,0 +1,85 @@
+package com.promoticon.datasource;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * 요청 중에 쓰기 트랜잭션이 커밋되면 세션에 기록해 두고, 그 뒤 일정 시간 동안 같은 세션의 읽기를 primary 로 보낸다.
+ * 설정을 바꾸고 돌아온 화면이 아직 복제되지 않은 replica 에서 옛 값을 읽는 일을 막는다.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String PRIMARY_UNTIL = ReadYourWritesFilter.class.getName() + ".PRIMARY_UNTIL";
+    static final String PINNED = ReadYourWritesFilter.class.getName() + ".PINNED";
+
+    private final Duration stickiness;
+    private final Clock clock;
+
+    public ReadYourWritesFilter(Duration stickiness) {
+        this(stickiness, Clock.systemUTC());
+    }
+
+    ReadYourWritesFilter(Duration stickiness, Clock clock) {
+        this.stickiness = stickiness;
+        this.clock = clock;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        HttpSession session = request.getSession(false);
+        if (session != null) {
+            Object primaryUntil = session.getAttribute(PRIMARY_UNTIL);
+            if (primaryUntil instanceof Long && (Long) primaryUntil > clock.millis()) {
+                request.setAttribute(PINNED, Boolean.TRUE);
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * 요청 속성에 두므로 스레드에 남지 않고 요청이 끝나면 함께 사라진다.
+     */
+    boolean isPinnedToPrimary() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null && Boolean.TRUE.equals(attributes.getAttribute(PINNED, RequestAttributes.SCOPE_REQUEST));
+    }
+
+    /**
+     * 현재 쓰기 트랜잭션이 커밋되면 이 요청의 남은 읽기와 이 세션의 다음 요청들을 primary 로 보낸다.
+     */
+    void written() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes) || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        HttpServletRequest request = ((ServletRequestAttributes) attributes).getRequest();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                request.setAttribute(PINNED, Boolean.TRUE);
+                try {
+                    // 가입처럼 세션이 없던 사용자도 곧 로그인하므로 세션을 만든다. 로그인할 때 세션 id 가 바뀌어도 속성은 남는다.
+                    request.getSession().setAttribute(PRIMARY_UNTIL, clock.millis() + stickiness.toMillis());
+                } catch (IllegalStateException e) {
+                    // 응답이 이미 나간 뒤라 세션을 만들 수 없다.
+                }
+            }
+        });
+    }
+}
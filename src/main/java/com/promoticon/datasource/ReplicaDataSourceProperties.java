@@ -0,0 +1,33 @@
+package com.promoticon.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties("app.datasource.replica")
+public class ReplicaDataSourceProperties {
+
+    /** 설정하면 읽기 전용 트랜잭션을 이 replica 로 보낸다. */
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    private String driverClassName;
+
+    private int maximumPoolSize = 10;
+
+    /** 복제 지연이 이보다 크거나 잴 수 없으면 읽기도 primary 로 보낸다. */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /** 복제 지연을 재는 주기. 마지막으로 잰 값이 이 주기의 두 배보다 오래되면 replica 를 쓰지 않는다. */
+    private long lagCheckIntervalMs = 1000;
+
+    /** 사용자가 무언가를 쓴 뒤 이 시간 동안은 그 사용자의 읽기를 primary 로 보낸다. */
+    private Duration readYourWrites = Duration.ofSeconds(5);
+}
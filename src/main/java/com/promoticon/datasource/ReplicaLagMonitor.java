@@ -0,0 +1,109 @@
+package com.promoticon.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * primary 의 replica_heartbeat 행에 현재 시각을 쓰고 replica 에서 읽어서 복제 지연을 잰다.
+ * 마지막으로 쓴 값이 replica 에 보이면 지연이 없는 것이고, 아니면 replica 에 보이는 값이 쓰인 뒤로 흐른 시간을 지연으로 본다.
+ * 처음 재기 전이나 replica 를 읽지 못하면 쓸 수 없는 것으로 본다. 검사가 멈춰서 마지막으로 잰 값이 검사 주기의 두 배보다
+ * 오래되어도 쓸 수 없는 것으로 본다.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final long HEARTBEAT_ID = 1L;
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final Duration maxLag;
+    private final Duration maxAge;
+    private final Clock clock;
+
+    private long lastWritten;
+    private volatile Measurement measurement = new Measurement(Long.MAX_VALUE, 0);
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, Duration maxLag, Duration checkInterval,
+                             MeterRegistry meterRegistry) {
+        this(primary, replica, maxLag, checkInterval, meterRegistry, Clock.systemUTC());
+    }
+
+    ReplicaLagMonitor(DataSource primary, DataSource replica, Duration maxLag, Duration checkInterval,
+                      MeterRegistry meterRegistry, Clock clock) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        // replica 가 응답하지 않아도 검사가 다음 주기를 넘겨 붙잡히지 않게 한다.
+        this.replica.setQueryTimeout((int) Math.max(1, checkInterval.toSeconds()));
+        this.maxLag = maxLag;
+        this.maxAge = checkInterval.multipliedBy(2);
+        this.clock = clock;
+        Gauge.builder("datasource.replica.lag", this, monitor -> monitor.measurement.lagMillis == Long.MAX_VALUE
+                        ? Double.NaN : monitor.measurement.lagMillis)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    public boolean isReplicaUsable() {
+        Measurement current = measurement;
+        return current.lagMillis <= maxLag.toMillis() && clock.millis() - current.measuredAt <= maxAge.toMillis();
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:1000}")
+    public synchronized void check() {
+        long now = clock.millis();
+        // 처음에는 비교할 값이 없으므로 한 번 쓰고 다음 검사부터 잰다.
+        if (lastWritten > 0) {
+            try {
+                List<Long> seen = replica.queryForList("select beat_at from replica_heartbeat where id = ?", Long.class, HEARTBEAT_ID);
+                if (seen.isEmpty()) {
+                    measurement = new Measurement(Long.MAX_VALUE, now);
+                } else {
+                    measurement = new Measurement(seen.get(0) >= lastWritten ? 0 : now - seen.get(0), now);
+                }
+            } catch (DataAccessException e) {
+                log.warn("replica lag check failed: {}", e.getMessage());
+                measurement = new Measurement(Long.MAX_VALUE, now);
+            }
+        }
+
+        try {
+            beat(now);
+            lastWritten = now;
+        } catch (DataAccessException e) {
+            log.warn("replica heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    private void beat(long now) {
+        if (primary.update("update replica_heartbeat set beat_at = ? where id = ?", now, HEARTBEAT_ID) > 0) {
+            return;
+        }
+        try {
+            primary.update("insert into replica_heartbeat (id, beat_at) values (?, ?)", HEARTBEAT_ID, now);
+        } catch (DuplicateKeyException e) {
+            // 다른 인스턴스가 먼저 넣었다.
+            primary.update("update replica_heartbeat set beat_at = ? where id = ?", now, HEARTBEAT_ID);
+        }
+    }
+
+    private static class Measurement {
+
+        private final long lagMillis;
+        private final long measuredAt;
+
+        Measurement(long lagMillis, long measuredAt) {
+            this.lagMillis = lagMillis;
+            this.measuredAt = measuredAt;
+        }
+    }
+}
@@ -1,35 +1,49 @@
 package com.promoticon.domain;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 @Entity
 @Getter @Setter @EqualsAndHashCode(of = "id")
 @Builder @AllArgsConstructor @NoArgsConstructor
+@Table(indexes = @Index(name = "idx_account_verified_created", columnList = "emailVerified, createdAt"))
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Account.CACHE_REGION)
+@NaturalIdCache(region = Account.NATURAL_ID_CACHE_REGION)
 public class Account {
 
-    @Id @GeneratedValue
+    public static final String CACHE_REGION = "account";
+    public static final String NATURAL_ID_CACHE_REGION = "account-natural-id";
+    public static final String BY_EMAIL_CACHE_REGION = "account-by-email";
+
+    @Id
+    @GeneratedValue(generator = "account_seq")
+    @GenericGenerator(name = "account_seq", strategy = PooledLoSequenceGenerator.STRATEGY,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "account_seq"))
     private Long id;
 
     @Column(unique = true)
     private String email;
 
-    @Column(unique = true)
+    @NaturalId(mutable = true)
     private String username;
 
     private String password;
 
     private boolean emailVerified;
 
-    private String emailCheckToken;
-
-    private LocalDateTime emailCheckTokenGeneratedAt;
-
     private LocalDateTime joinedAt;
 
+    private LocalDateTime createdAt;
+
     private String bio;
 
     private String url;
@@ -38,8 +52,9 @@ public class Account {
 
     private String location;
 
-    @Lob @Basic(fetch = FetchType.EAGER)
-    private String profileImage;
+    private Long profileImageId;
+
+    private Long profileThumbnailId;
 
     private boolean emoticonCreatedByWeb = true;
 
@@ -49,24 +64,10 @@ public class Account {
 
     private boolean feedbackUpdatedByEmail;
 
-    public void generateEmailCheckToken() {
-
-        this.emailCheckToken = UUID.randomUUID().toString();
-        this.emailCheckTokenGeneratedAt = LocalDateTime.now();
-    }
-
     public void completeSignUp() {
 
         this.emailVerified = true;
         this.joinedAt = LocalDateTime.now();
 
     }
-
-    public boolean isValidToken(String token) {
-        return this.emailCheckToken.equals(token);
-    }
-
-    public boolean canSendConfirmEmail() {
-        return this.emailCheckTokenGeneratedAt.isBefore(LocalDateTime.now().minusHours(1));
-    }
 }
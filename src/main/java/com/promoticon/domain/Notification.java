@@ -0,0 +1,34 @@
+package com.promoticon.domain;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(indexes = @Index(name = "idx_notification_account_checked", columnList = "account_id, checked"))
+@Getter @Setter @EqualsAndHashCode(of = "id")
+@Builder @AllArgsConstructor @NoArgsConstructor
+public class Notification {
+
+    // 알림은 JDBC 배치로 한꺼번에 넣으므로 DB 가 id 를 만든다.
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String title;
+
+    private String link;
+
+    private String message;
+
+    private boolean checked;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Account account;
+
+    private LocalDateTime createdAt;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 32)
+    private NotificationType notificationType;
+}
@@ -0,0 +1,6 @@
+package com.promoticon.domain;
+
+public enum NotificationType {
+
+    EMOTICON_CREATED, FEEDBACK_UPDATED
+}
@@ -0,0 +1,28 @@
+package com.promoticon.domain;
+
+import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Getter @EqualsAndHashCode(of = "id")
+@Builder @AllArgsConstructor @NoArgsConstructor
+public class ProfileImage {
+
+    @Id
+    @GeneratedValue(generator = "profile_image_seq")
+    @GenericGenerator(name = "profile_image_seq", strategy = PooledLoSequenceGenerator.STRATEGY,
+            parameters = @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "profile_image_seq"))
+    private Long id;
+
+    private String contentType;
+
+    @Column(length = 64, nullable = false)
+    private String etag;
+
+    private LocalDateTime createdAt;
+}
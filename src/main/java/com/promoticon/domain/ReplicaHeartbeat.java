@@ -0,0 +1,21 @@
+package com.promoticon.domain;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * 복제 지연을 재기 위해 primary 에 주기적으로 쓰고 replica 에서 읽는 행. 행은 하나만 둔다.
+ */
+@Entity
+@Getter
+@Setter
+public class ReplicaHeartbeat {
+
+    @Id
+    private Long id;
+
+    private long beatAt;
+}
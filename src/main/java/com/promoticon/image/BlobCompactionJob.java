@@ -0,0 +1,21 @@
+package com.promoticon.image;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+
+@Component
+@RequiredArgsConstructor
+public class BlobCompactionJob {
+
+    private final ProfileImageRepository profileImageRepository;
+    private final BlobStore blobStore;
+
+    @Scheduled(initialDelayString = "${app.blob-store.compaction-interval-ms:3600000}",
+            fixedDelayString = "${app.blob-store.compaction-interval-ms:3600000}")
+    public void compact() {
+        blobStore.retainAll(new HashSet<>(profileImageRepository.findAllEtags()));
+    }
+}
@@ -0,0 +1,25 @@
+package com.promoticon.image;
+
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 이미지 바이트를 내용 해시(SHA-256, 16진수)로 저장하는 저장소. 같은 키는 한 번만 저장된다.
+ */
+public interface BlobStore {
+
+    void put(String key, byte[] data);
+
+    /**
+     * 읽기 전용 버퍼를 돌려준다. 구현체에 따라 힙 밖의 메모리를 가리킬 수 있다.
+     */
+    Optional<ByteBuffer> get(String key);
+
+    boolean contains(String key);
+
+    /**
+     * 주어진 키 외의 블롭을 정리한다. 최근에 저장된 블롭은 아직 참조가 커밋되지 않았을 수 있으므로 남겨둔다.
+     */
+    void retainAll(Set<String> liveKeys);
+}
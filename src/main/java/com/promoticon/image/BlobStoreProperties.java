@@ -0,0 +1,25 @@
+package com.promoticon.image;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties("app.blob-store")
+public class BlobStoreProperties {
+
+    private String directory = System.getProperty("java.io.tmpdir") + "/promoticon-blobs";
+
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    /**
+     * 살아있는 블롭의 비율이 이 값보다 낮은 세그먼트를 압축한다.
+     */
+    private double compactionThreshold = 0.5;
+
+    private Duration gracePeriod = Duration.ofHours(1);
+}
@@ -0,0 +1,52 @@
+package com.promoticon.image;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * {@link BlobStore} 가 돌려준 버퍼를 응답 본문으로 쓴다. InputStream 으로 감싸서 4KB 씩 복사하지 않고 채널에 버퍼째 넘긴다.
+ * 서블릿 출력 스트림은 byte[] 만 받으므로 채널 안에서 한 번 복사하는 것은 남는다. 쓰기만 지원한다.
+ */
+public class ByteBufferHttpMessageConverter extends AbstractHttpMessageConverter<ByteBuffer> {
+
+    public ByteBufferHttpMessageConverter() {
+        super(MediaType.ALL);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ByteBuffer.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected ByteBuffer readInternal(Class<? extends ByteBuffer> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("ByteBuffer 본문은 읽을 수 없습니다.", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(ByteBuffer buffer, MediaType contentType) {
+        return (long) buffer.remaining();
+    }
+
+    @Override
+    protected void writeInternal(ByteBuffer buffer, HttpOutputMessage outputMessage) throws IOException {
+        ByteBuffer data = buffer.duplicate();
+        WritableByteChannel channel = Channels.newChannel(outputMessage.getBody());
+        while (data.hasRemaining()) {
+            channel.write(data);
+        }
+    }
+}
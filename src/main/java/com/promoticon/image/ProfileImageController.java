@@ -0,0 +1,52 @@
+package com.promoticon.image;
+
+import com.promoticon.domain.ProfileImage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+@Controller
+@RequiredArgsConstructor
+public class ProfileImageController {
+
+    public static final String PROFILE_IMAGE_URL = "/profile-image/";
+
+    // 업로드할 때마다 새 id가 발급되므로 같은 URL의 내용은 바뀌지 않는다.
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic();
+
+    private final ProfileImageRepository profileImageRepository;
+    private final BlobStore blobStore;
+
+    @GetMapping(PROFILE_IMAGE_URL + "{id}")
+    public ResponseEntity<ByteBuffer> profileImage(@PathVariable Long id, ServletWebRequest webRequest) {
+        ProfileImage profileImage = profileImageRepository.findById(id).orElse(null);
+        if (profileImage == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        if (webRequest.checkNotModified(profileImage.getEtag())) {
+            webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL.getHeaderValue());
+            return null;
+        }
+
+        ByteBuffer data = blobStore.get(profileImage.getEtag()).orElse(null);
+        if (data == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(profileImage.getEtag())
+                .cacheControl(CACHE_CONTROL)
+                .contentType(MediaType.parseMediaType(profileImage.getContentType()))
+                .body(data);
+    }
+}
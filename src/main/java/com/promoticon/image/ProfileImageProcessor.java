@@ -0,0 +1,95 @@
+package com.promoticon.image;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 올린 프로필 이미지를 이미지 풀에서 변환한다. 프로필 수정 트랜잭션 안에서 풀의 자리를 먼저 잡아 두고 커밋된 뒤에 넘기므로
+ * 넘긴 작업이 거절되는 일은 없다. 자리가 없으면 {@link ProfileImageRejectedException} 으로 요청을 거절한다.
+ */
+@Slf4j
+@Component
+public class ProfileImageProcessor {
+
+    public static final int PROFILE_SIZE = 125;
+    public static final int THUMBNAIL_SIZE = 30;
+
+    private final ThreadPoolTaskExecutor imageTaskExecutor;
+    private final ProfileImageTranscoder profileImageTranscoder;
+    private final ProfileImageService profileImageService;
+    private final Semaphore slots;
+
+    public ProfileImageProcessor(ThreadPoolTaskExecutor imageTaskExecutor, ProfileImageTranscoder profileImageTranscoder,
+                                 ProfileImageService profileImageService) {
+        this.imageTaskExecutor = imageTaskExecutor;
+        this.profileImageTranscoder = profileImageTranscoder;
+        this.profileImageService = profileImageService;
+        // 이 풀은 프로필 이미지만 처리하므로 스레드 수와 큐 크기를 합한 만큼은 거절되지 않는다.
+        this.slots = new Semaphore(imageTaskExecutor.getMaxPoolSize()
+                + imageTaskExecutor.getThreadPoolExecutor().getQueue().remainingCapacity());
+    }
+
+    @EventListener
+    public void handleProfileImageUploadedEvent(ProfileImageUploadedEvent event) {
+        if (!slots.tryAcquire()) {
+            throw new ProfileImageRejectedException("이미지를 처리하는 요청이 많습니다. 잠시 후 다시 시도해 주세요.");
+        }
+
+        Runnable task = () -> {
+            try {
+                process(event.getAccountId(), event.getDataUrl());
+            } finally {
+                slots.release();
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submit(event.getAccountId(), task);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    submit(event.getAccountId(), task);
+                } else {
+                    slots.release();
+                }
+            }
+        });
+    }
+
+    private void submit(Long accountId, Runnable task) {
+        try {
+            imageTaskExecutor.execute(task);
+        } catch (TaskRejectedException e) {
+            // 자리를 잡아 두었으므로 종료 중일 때만 여기에 온다.
+            slots.release();
+            log.warn("image executor rejected profile image of account {}: {}", accountId, e.getMessage());
+        }
+    }
+
+    void process(Long accountId, String dataUrl) {
+        long start = System.nanoTime();
+        try {
+            byte[] data = ProfileImageService.decodeDataUrl(dataUrl);
+            BufferedImage source = profileImageTranscoder.decode(data, PROFILE_SIZE);
+            byte[] profile = profileImageTranscoder.transcode(source, PROFILE_SIZE);
+            byte[] thumbnail = profileImageTranscoder.transcode(source, THUMBNAIL_SIZE);
+            profileImageService.replaceProfileImages(accountId, profile, thumbnail);
+            log.debug("transcoded profile image of account {} ({} bytes) in {} ms",
+                    accountId, data.length, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("failed to transcode profile image of account {}: {}", accountId, e.getMessage());
+        }
+    }
+}
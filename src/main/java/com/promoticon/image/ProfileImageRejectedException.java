@@ -0,0 +1,15 @@
+package com.promoticon.image;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * 이미지 처리 풀이 포화 상태라 올린 프로필 이미지를 받을 수 없을 때 던진다. 프로필 수정은 되돌려지고 503으로 처리된다.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ProfileImageRejectedException extends RuntimeException {
+
+    public ProfileImageRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.promoticon.image;
+
+import com.promoticon.domain.ProfileImage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Transactional(readOnly = true)
+public interface ProfileImageRepository extends JpaRepository<ProfileImage, Long> {
+
+    @Query("select distinct i.etag from ProfileImage i")
+    List<String> findAllEtags();
+}
@@ -0,0 +1,92 @@
+package com.promoticon.image;
+
+import com.promoticon.account.AccountRepository;
+import com.promoticon.account.NavbarRenderCache;
+import com.promoticon.account.UserAccountCache;
+import com.promoticon.domain.Account;
+import com.promoticon.domain.ProfileImage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class ProfileImageService {
+
+    private static final String DATA_URL_PREFIX = "data:";
+    private static final String BASE64_MARKER = ";base64,";
+
+    private final ProfileImageRepository profileImageRepository;
+    private final AccountRepository accountRepository;
+    private final BlobStore blobStore;
+    private final UserAccountCache userAccountCache;
+    private final NavbarRenderCache navbarRenderCache;
+
+    static byte[] decodeDataUrl(String dataUrl) {
+        int marker = dataUrl.indexOf(BASE64_MARKER);
+        if (!dataUrl.startsWith(DATA_URL_PREFIX) || marker < 0) {
+            throw new IllegalArgumentException("프로필 이미지 형식이 올바르지 않습니다.");
+        }
+
+        String contentType = dataUrl.substring(DATA_URL_PREFIX.length(), marker);
+        if (!contentType.startsWith("image/")) {
+            throw new IllegalArgumentException("이미지 파일만 업로드할 수 있습니다.");
+        }
+
+        return Base64.getDecoder().decode(dataUrl.substring(marker + BASE64_MARKER.length()));
+    }
+
+    public void replaceProfileImages(Long accountId, byte[] profile, byte[] thumbnail) {
+        Account account = accountRepository.findById(accountId).orElse(null);
+        if (account == null) {
+            return;
+        }
+
+        Long oldProfileImageId = account.getProfileImageId();
+        Long oldProfileThumbnailId = account.getProfileThumbnailId();
+        account.setProfileImageId(save(profile, ProfileImageTranscoder.CONTENT_TYPE).getId());
+        account.setProfileThumbnailId(save(thumbnail, ProfileImageTranscoder.CONTENT_TYPE).getId());
+        if (oldProfileImageId != null) {
+            delete(oldProfileImageId);
+        }
+        if (oldProfileThumbnailId != null) {
+            delete(oldProfileThumbnailId);
+        }
+        userAccountCache.evict(account);
+        navbarRenderCache.evict(accountId);
+    }
+
+    public ProfileImage save(byte[] data, String contentType) {
+        String etag = sha256(data);
+        blobStore.put(etag, data);
+        ProfileImage profileImage = ProfileImage.builder()
+                .contentType(contentType)
+                .etag(etag)
+                .createdAt(LocalDateTime.now())
+                .build();
+        return profileImageRepository.save(profileImage);
+    }
+
+    public void delete(Long id) {
+        profileImageRepository.deleteById(id);
+    }
+
+    static String sha256(byte[] data) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            StringBuilder hex = new StringBuilder(64);
+            for (byte b : digest.digest(data)) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
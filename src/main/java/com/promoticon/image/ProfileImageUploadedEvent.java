@@ -0,0 +1,13 @@
+package com.promoticon.image;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class ProfileImageUploadedEvent {
+
+    private final Long accountId;
+
+    private final String dataUrl;
+}
@@ -0,0 +1,291 @@
+package com.promoticon.image;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 블롭을 세그먼트 파일에 이어 붙여 저장하고, 세그먼트 전체를 메모리 매핑해서 읽는다.
+ * 레코드 형식은 [magic(4)][sha-256(32)][length(4)][data] 이며, magic 은 본문을 다 쓴 뒤에 기록하므로
+ * 중간에 끊긴 레코드는 다시 열 때 무시된다. 인덱스는 메모리에만 두고 시작할 때 세그먼트를 훑어서 복구한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SegmentedBlobStore implements BlobStore {
+
+    private static final int MAGIC = 0x50424C42;
+    private static final int KEY_LENGTH = 32;
+    private static final int HEADER_LENGTH = 4 + KEY_LENGTH + 4;
+    private static final Pattern SEGMENT_FILE = Pattern.compile("segment-(\\d{8})\\.blob");
+
+    private final BlobStoreProperties properties;
+
+    private final Map<String, Location> index = new ConcurrentHashMap<>();
+    private final NavigableMap<Integer, Segment> segments = new ConcurrentSkipListMap<>();
+    private final Map<String, Long> recentlyWritten = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+
+    private Path directory;
+    private int segmentSize;
+    private volatile Segment active;
+
+    @PostConstruct
+    public void open() throws IOException {
+        directory = Paths.get(properties.getDirectory());
+        segmentSize = Math.toIntExact(properties.getSegmentSize().toBytes());
+        Files.createDirectories(directory);
+
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segmentFiles = new ArrayList<>();
+            files.filter(file -> SEGMENT_FILE.matcher(file.getFileName().toString()).matches())
+                    .sorted()
+                    .forEach(segmentFiles::add);
+            for (Path file : segmentFiles) {
+                Segment segment = openSegment(file, segmentId(file));
+                segment.scan(index);
+                segments.put(segment.id, segment);
+            }
+        }
+
+        active = segments.isEmpty() ? createSegment(1) : segments.lastEntry().getValue();
+        log.info("opened blob store {} ({} segments, {} blobs)", directory, segments.size(), index.size());
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        synchronized (writeLock) {
+            for (Segment segment : segments.values()) {
+                segment.close();
+            }
+            segments.clear();
+            index.clear();
+        }
+    }
+
+    @Override
+    public void put(String key, byte[] data) {
+        byte[] keyBytes = keyBytes(key);
+        recentlyWritten.put(key, System.currentTimeMillis());
+        if (index.containsKey(key)) {
+            return;
+        }
+
+        synchronized (writeLock) {
+            if (!index.containsKey(key)) {
+                append(key, keyBytes, ByteBuffer.wrap(data));
+            }
+        }
+    }
+
+    @Override
+    public Optional<ByteBuffer> get(String key) {
+        Location location = index.get(key);
+        if (location == null) {
+            return Optional.empty();
+        }
+        return Optional.of(location.slice());
+    }
+
+    @Override
+    public boolean contains(String key) {
+        return index.containsKey(key);
+    }
+
+    @Override
+    public void retainAll(Set<String> liveKeys) {
+        long graceCutoff = System.currentTimeMillis() - properties.getGracePeriod().toMillis();
+        recentlyWritten.values().removeIf(writtenAt -> writtenAt < graceCutoff);
+
+        synchronized (writeLock) {
+            int removed = 0;
+            for (Iterator<String> keys = index.keySet().iterator(); keys.hasNext(); ) {
+                String key = keys.next();
+                if (!liveKeys.contains(key) && !recentlyWritten.containsKey(key)) {
+                    keys.remove();
+                    removed++;
+                }
+            }
+
+            Map<Segment, Long> liveBytes = new HashMap<>();
+            index.values().forEach(location -> liveBytes.merge(location.segment, (long) HEADER_LENGTH + location.length, Long::sum));
+
+            int compacted = 0;
+            int activeId = active.id;
+            for (Segment segment : new ArrayList<>(segments.headMap(activeId).values())) {
+                long live = liveBytes.getOrDefault(segment, 0L);
+                if (live < segment.writePosition * properties.getCompactionThreshold()) {
+                    compact(segment);
+                    compacted++;
+                }
+            }
+            log.info("blob store cleanup: {} blobs released, {} segments compacted, {} blobs left", removed, compacted, index.size());
+        }
+    }
+
+    private void compact(Segment segment) {
+        index.forEach((key, location) -> {
+            if (location.segment == segment) {
+                append(key, keyBytes(key), location.slice());
+            }
+        });
+
+        segments.remove(segment.id);
+        try {
+            segment.close();
+            Files.deleteIfExists(segment.file);
+        } catch (IOException e) {
+            log.warn("failed to delete blob segment {}", segment.file, e);
+        }
+    }
+
+    private void append(String key, byte[] keyBytes, ByteBuffer data) {
+        int recordLength = HEADER_LENGTH + data.remaining();
+        if (recordLength > segmentSize) {
+            throw new IllegalArgumentException("블롭이 세그먼트 크기보다 큽니다: " + data.remaining());
+        }
+        if (segmentSize - active.writePosition < recordLength) {
+            active = createSegment(active.id + 1);
+        }
+
+        Segment segment = active;
+        int position = segment.writePosition;
+        ByteBuffer buffer = segment.buffer.duplicate();
+        buffer.position(position + 4);
+        buffer.put(keyBytes);
+        buffer.putInt(data.remaining());
+        int length = data.remaining();
+        buffer.put(data);
+        segment.buffer.force();
+        segment.buffer.putInt(position, MAGIC);
+        segment.buffer.force();
+
+        segment.writePosition = position + recordLength;
+        index.put(key, new Location(segment, position + HEADER_LENGTH, length));
+    }
+
+    private Segment createSegment(int id) {
+        Path file = directory.resolve(String.format("segment-%08d.blob", id));
+        try {
+            Segment segment = openSegment(file, id);
+            segments.put(id, segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Segment openSegment(Path file, int id) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        return new Segment(id, file, channel, buffer);
+    }
+
+    private static int segmentId(Path file) {
+        Matcher matcher = SEGMENT_FILE.matcher(file.getFileName().toString());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException(file.toString());
+        }
+        return Integer.parseInt(matcher.group(1));
+    }
+
+    private static byte[] keyBytes(String key) {
+        if (key.length() != KEY_LENGTH * 2) {
+            throw new IllegalArgumentException("SHA-256 16진수 키가 아닙니다: " + key);
+        }
+        byte[] bytes = new byte[KEY_LENGTH];
+        for (int i = 0; i < KEY_LENGTH; i++) {
+            int high = Character.digit(key.charAt(i * 2), 16);
+            int low = Character.digit(key.charAt(i * 2 + 1), 16);
+            if (high < 0 || low < 0) {
+                throw new IllegalArgumentException("SHA-256 16진수 키가 아닙니다: " + key);
+            }
+            bytes[i] = (byte) (high << 4 | low);
+        }
+        return bytes;
+    }
+
+    private static String keyString(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(KEY_LENGTH * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static class Segment {
+
+        private final int id;
+        private final Path file;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private volatile int writePosition;
+
+        Segment(int id, Path file, FileChannel channel, MappedByteBuffer buffer) {
+            this.id = id;
+            this.file = file;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        void scan(Map<String, Location> index) {
+            int position = 0;
+            byte[] key = new byte[KEY_LENGTH];
+            while (position + HEADER_LENGTH <= buffer.capacity() && buffer.getInt(position) == MAGIC) {
+                ByteBuffer header = buffer.duplicate();
+                header.position(position + 4);
+                header.get(key);
+                int length = header.getInt();
+                if (length < 0 || position + HEADER_LENGTH + length > buffer.capacity()) {
+                    break;
+                }
+                index.put(keyString(key), new Location(this, position + HEADER_LENGTH, length));
+                position += HEADER_LENGTH + length;
+            }
+            writePosition = position;
+        }
+
+        void close() throws IOException {
+            // 매핑은 GC 될 때 해제되므로 이미 내어준 버퍼는 채널을 닫은 뒤에도 읽을 수 있다.
+            channel.close();
+        }
+    }
+
+    private static class Location {
+
+        private final Segment segment;
+        private final int offset;
+        private final int length;
+
+        Location(Segment segment, int offset, int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        ByteBuffer slice() {
+            ByteBuffer buffer = segment.buffer.duplicate();
+            buffer.position(offset);
+            buffer.limit(offset + length);
+            return buffer.slice().asReadOnlyBuffer();
+        }
+    }
+}
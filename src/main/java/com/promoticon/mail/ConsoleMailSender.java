@@ -3,57 +3,107 @@ package com.promoticon.mail;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Profile;
 import org.springframework.mail.MailException;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailPreparationException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessagePreparator;
 import org.springframework.stereotype.Component;
 
+import javax.mail.MessagingException;
+import javax.mail.Multipart;
+import javax.mail.Part;
+import javax.mail.Session;
 import javax.mail.internet.MimeMessage;
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.Properties;
 
 @Profile("local")
 @Component
 @Slf4j
 public class ConsoleMailSender implements JavaMailSender {
 
+    private final Session session = Session.getInstance(new Properties());
+
     @Override
     public MimeMessage createMimeMessage() {
-        return null;
+        return new MimeMessage(session);
     }
 
     @Override
     public MimeMessage createMimeMessage(InputStream contentStream) throws MailException {
-        return null;
+        try {
+            return new MimeMessage(session, contentStream);
+        } catch (MessagingException e) {
+            throw new MailParseException(e);
+        }
     }
 
     @Override
     public void send(MimeMessage mimeMessage) throws MailException {
-
+        try {
+            log.info("to: {}, subject: {}", Arrays.toString(mimeMessage.getAllRecipients()), mimeMessage.getSubject());
+            log.info(plainText(mimeMessage));
+        } catch (MessagingException | IOException e) {
+            throw new MailPreparationException(e);
+        }
     }
 
     @Override
     public void send(MimeMessage... mimeMessages) throws MailException {
-
+        for (MimeMessage mimeMessage : mimeMessages) {
+            send(mimeMessage);
+        }
     }
 
     @Override
     public void send(MimeMessagePreparator mimeMessagePreparator) throws MailException {
-
+        MimeMessage mimeMessage = createMimeMessage();
+        try {
+            mimeMessagePreparator.prepare(mimeMessage);
+        } catch (MailException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new MailPreparationException(e);
+        }
+        send(mimeMessage);
     }
 
     @Override
     public void send(MimeMessagePreparator... mimeMessagePreparators) throws MailException {
-
+        for (MimeMessagePreparator mimeMessagePreparator : mimeMessagePreparators) {
+            send(mimeMessagePreparator);
+        }
     }
 
     @Override
     public void send(SimpleMailMessage simpleMessage) throws MailException {
+        log.info("to: {}, subject: {}", Arrays.toString(simpleMessage.getTo()), simpleMessage.getSubject());
         log.info(simpleMessage.getText());
-
     }
 
     @Override
     public void send(SimpleMailMessage... simpleMessages) throws MailException {
+        for (SimpleMailMessage simpleMessage : simpleMessages) {
+            send(simpleMessage);
+        }
+    }
 
+    private static String plainText(Part part) throws MessagingException, IOException {
+        if (part.isMimeType("text/plain")) {
+            return (String) part.getContent();
+        }
+        if (part.isMimeType("multipart/*")) {
+            Multipart multipart = (Multipart) part.getContent();
+            for (int i = 0; i < multipart.getCount(); i++) {
+                String text = plainText(multipart.getBodyPart(i));
+                if (text != null) {
+                    return text;
+                }
+            }
+        }
+        return null;
     }
 }
@@ -0,0 +1,108 @@
+package com.promoticon.mail;
+
+import com.promoticon.domain.OutboxMail;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 아웃박스에 쌓인 메일을 주기적으로 가져가서 메일 전용 풀에서 보낸다.
+ * 풀의 큐가 비어 있는 만큼만 가져가므로 SMTP 가 느려져도 가져간 채 쌓이지 않는다.
+ * 보내고 나서 행을 지우기 전에 죽으면 lease 가 지난 뒤 한 번 더 보낼 수 있다.
+ */
+@Slf4j
+@Component
+public class MailDispatcher {
+
+    private static final String UTF_8 = "UTF-8";
+
+    private final MailOutbox mailOutbox;
+    private final JavaMailSender javaMailSender;
+    private final ThreadPoolTaskExecutor mailTaskExecutor;
+    private final MailOutboxProperties properties;
+    private final Timer sendSuccess;
+    private final Timer sendFailure;
+    private final AtomicLong pending = new AtomicLong();
+
+    public MailDispatcher(MailOutbox mailOutbox, JavaMailSender javaMailSender, ThreadPoolTaskExecutor mailTaskExecutor,
+                          MailOutboxProperties properties, MeterRegistry meterRegistry) {
+        this.mailOutbox = mailOutbox;
+        this.javaMailSender = javaMailSender;
+        this.mailTaskExecutor = mailTaskExecutor;
+        this.properties = properties;
+        this.sendSuccess = Timer.builder("mail.send").tag("result", "success").register(meterRegistry);
+        this.sendFailure = Timer.builder("mail.send").tag("result", "failure").register(meterRegistry);
+        Gauge.builder("mail.outbox.pending", pending, AtomicLong::get).register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail-outbox.poll-interval-ms:1000}",
+            initialDelayString = "${app.mail-outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        pending.set(mailOutbox.countPending());
+
+        int capacity = mailTaskExecutor.getThreadPoolExecutor().getQueue().remainingCapacity();
+        int limit = Math.min(properties.getBatchSize(), capacity);
+        if (limit == 0) {
+            return;
+        }
+
+        List<OutboxMail> claimed = mailOutbox.claim(limit);
+        for (OutboxMail mail : claimed) {
+            try {
+                mailTaskExecutor.execute(() -> send(mail));
+            } catch (TaskRejectedException e) {
+                log.warn("mail queue is full, mail {} will be retried after its lease", mail.getId());
+            }
+        }
+    }
+
+    void send(OutboxMail mail) {
+        long start = System.nanoTime();
+        try {
+            if (mail.getHtml() == null) {
+                javaMailSender.send(toSimpleMessage(mail));
+            } else {
+                javaMailSender.send(toMimeMessage(mail));
+            }
+        } catch (MessagingException | RuntimeException e) {
+            sendFailure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            mailOutbox.markFailed(mail.getId(), mail.getClaimToken(), e);
+            return;
+        }
+        sendSuccess.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        mailOutbox.markSent(mail.getId(), mail.getClaimToken());
+    }
+
+    private MimeMessage toMimeMessage(OutboxMail mail) throws MessagingException {
+        MimeMessage message = javaMailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED, UTF_8);
+        helper.setFrom(properties.getFrom());
+        helper.setTo(mail.getRecipient());
+        helper.setSubject(mail.getSubject());
+        helper.setText(mail.getText() == null ? "" : mail.getText(), mail.getHtml());
+        return message;
+    }
+
+    private SimpleMailMessage toSimpleMessage(OutboxMail mail) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(properties.getFrom());
+        message.setTo(mail.getRecipient());
+        message.setSubject(mail.getSubject());
+        message.setText(mail.getText());
+        return message;
+    }
+}
@@ -0,0 +1,117 @@
+package com.promoticon.mail;
+
+import com.promoticon.domain.OutboxMail;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 보낼 메일을 호출한 쪽의 트랜잭션 안에서 테이블에 적어 둔다. 실제 발송은 {@link MailDispatcher} 가 커밋된 행을 가져가서 한다.
+ */
+@Slf4j
+@Service
+@Transactional
+@RequiredArgsConstructor
+public class MailOutbox {
+
+    private final OutboxMailRepository outboxMailRepository;
+    private final MailOutboxProperties properties;
+
+    public void enqueue(SimpleMailMessage message) {
+        for (String recipient : message.getTo()) {
+            enqueue(recipient, message.getSubject(), message.getText(), null);
+        }
+    }
+
+    /**
+     * html 이 있으면 text 를 대체 본문으로 하는 multipart 메일로 보낸다.
+     */
+    public void enqueue(String recipient, String subject, String text, String html) {
+        outboxMailRepository.save(newMail(recipient, subject, text, html));
+    }
+
+    public void enqueueAll(List<OutboxMail> mails) {
+        outboxMailRepository.saveAll(mails);
+    }
+
+    public static OutboxMail newMail(String recipient, String subject, String text, String html) {
+        LocalDateTime now = LocalDateTime.now();
+        return OutboxMail.builder()
+                .recipient(recipient)
+                .subject(subject)
+                .text(text)
+                .html(html)
+                .status(OutboxMail.Status.PENDING)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build();
+    }
+
+    public List<OutboxMail> claim(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = outboxMailRepository.findDueIds(now, PageRequest.of(0, limit));
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        String claimToken = UUID.randomUUID().toString();
+        outboxMailRepository.claim(ids, claimToken, now, now.plus(properties.getLease()));
+        return outboxMailRepository.findByClaimToken(claimToken);
+    }
+
+    /**
+     * {@link #claim(int)} 에서 받은 claimToken 으로 가져간 메일만 지운다. 보내는 동안 lease 가 지나 다른 디스패처가
+     * 다시 가져갔다면 그쪽의 결과를 따른다.
+     */
+    public void markSent(Long id, String claimToken) {
+        if (outboxMailRepository.deleteClaimed(id, claimToken) == 0) {
+            log.warn("mail {} was claimed again after its lease expired, it may be sent twice", id);
+        }
+    }
+
+    public void markFailed(Long id, String claimToken, Exception cause) {
+        OutboxMail mail = outboxMailRepository.findByIdAndClaimToken(id, claimToken);
+        if (mail == null) {
+            log.warn("mail {} was claimed again after its lease expired, ignoring failure: {}", id, cause.getMessage());
+            return;
+        }
+
+        mail.setAttempts(mail.getAttempts() + 1);
+        mail.setClaimToken(null);
+        String error = String.valueOf(cause.getMessage());
+        mail.setLastError(error.length() > 1000 ? error.substring(0, 1000) : error);
+        if (mail.getAttempts() >= properties.getMaxAttempts()) {
+            mail.setStatus(OutboxMail.Status.FAILED);
+            log.error("giving up mail {} to {} after {} attempts", id, mail.getRecipient(), mail.getAttempts(), cause);
+            return;
+        }
+
+        mail.setNextAttemptAt(LocalDateTime.now().plus(backoff(mail.getAttempts())));
+        log.warn("failed to send mail {} (attempt {}), will retry at {}: {}",
+                id, mail.getAttempts(), mail.getNextAttemptAt(), cause.getMessage());
+    }
+
+    @Transactional(readOnly = true)
+    public long countPending() {
+        return outboxMailRepository.countByStatus(OutboxMail.Status.PENDING);
+    }
+
+    Duration backoff(int attempts) {
+        long initial = properties.getInitialBackoff().toMillis();
+        long max = properties.getMaxBackoff().toMillis();
+        long exponential = initial << Math.min(attempts - 1, 30);
+        long delay = exponential <= 0 ? max : Math.min(max, exponential);
+        // 한꺼번에 실패한 메일이 같은 시각에 몰려서 다시 나가지 않도록 조금씩 흩뜨린다.
+        return Duration.ofMillis(delay - ThreadLocalRandom.current().nextLong(delay / 5 + 1));
+    }
+}
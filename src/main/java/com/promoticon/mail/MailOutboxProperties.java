@@ -0,0 +1,31 @@
+package com.promoticon.mail;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties("app.mail-outbox")
+public class MailOutboxProperties {
+
+    /** 보내는 사람 주소 */
+    private String from = "promoticon@localhost";
+
+    /** 한 번에 가져오는 최대 메일 수 */
+    private int batchSize = 50;
+
+    /** 동시에 보내는 메일 수 */
+    private int threads = 4;
+
+    /** 가져간 메일을 다른 디스패처가 다시 가져가지 못하는 시간. 보내다 죽으면 이 시간이 지난 뒤 다시 보낸다. */
+    private Duration lease = Duration.ofMinutes(5);
+
+    private int maxAttempts = 8;
+
+    private Duration initialBackoff = Duration.ofSeconds(30);
+
+    private Duration maxBackoff = Duration.ofHours(1);
+}
@@ -0,0 +1,72 @@
+package com.promoticon.mail;
+
+import org.unbescape.html.HtmlEscape;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 한 번 렌더링해 둔 메일 본문. 변수 자리를 기준으로 고정된 조각과 변수 이름을 번갈아 가지고 있다가,
+ * 렌더링할 때는 조각 사이에 Thymeleaf 와 같은 방식으로 이스케이프한 값만 끼워 넣는다.
+ */
+class MailTemplate {
+
+    private final String[] literals;
+    private final String[] variables;
+    private final int literalLength;
+
+    private MailTemplate(String[] literals, String[] variables) {
+        this.literals = literals;
+        this.variables = variables;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.literalLength = length;
+    }
+
+    static String placeholder(String variable) {
+        return "{{" + variable + "}}";
+    }
+
+    /**
+     * placeholder 로 렌더링한 결과를 조각으로 나눈다.
+     */
+    static MailTemplate compile(String rendered, List<String> variableNames) {
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int next = -1;
+            String found = null;
+            for (String name : variableNames) {
+                int index = rendered.indexOf(placeholder(name), position);
+                if (index >= 0 && (next < 0 || index < next)) {
+                    next = index;
+                    found = name;
+                }
+            }
+            if (found == null) {
+                break;
+            }
+            literals.add(rendered.substring(position, next));
+            variables.add(found);
+            position = next + placeholder(found).length();
+        }
+        literals.add(rendered.substring(position));
+        return new MailTemplate(literals.toArray(new String[0]), variables.toArray(new String[0]));
+    }
+
+    String render(Map<String, String> values) {
+        StringBuilder html = new StringBuilder(literalLength + variables.length * 64);
+        for (int i = 0; i < variables.length; i++) {
+            html.append(literals[i]);
+            String value = values.get(variables[i]);
+            if (value != null) {
+                html.append(HtmlEscape.escapeHtml4Xml(value));
+            }
+        }
+        return html.append(literals[variables.length]).toString();
+    }
+}
@@ -0,0 +1,39 @@
+package com.promoticon.mail;
+
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 메일 템플릿은 시작할 때 변수 자리에 placeholder 를 넣고 한 번만 렌더링해서 {@link MailTemplate} 으로 만들어 둔다.
+ * 그래서 메일 템플릿에서는 변수를 th:text, th:href 처럼 값을 그대로 출력하는 곳에만 써야 한다.
+ */
+@Component
+public class MailTemplates {
+
+    public static final String SIMPLE_LINK = "mail/simple-link";
+
+    private final Map<String, MailTemplate> templates = new HashMap<>();
+
+    public MailTemplates(ITemplateEngine templateEngine) {
+        compile(templateEngine, SIMPLE_LINK, List.of("nickname", "message", "link", "linkName"));
+    }
+
+    public String render(String name, Map<String, String> values) {
+        MailTemplate template = templates.get(name);
+        if (template == null) {
+            throw new IllegalArgumentException("없는 메일 템플릿입니다: " + name);
+        }
+        return template.render(values);
+    }
+
+    private void compile(ITemplateEngine templateEngine, String name, List<String> variables) {
+        Context context = new Context();
+        variables.forEach(variable -> context.setVariable(variable, MailTemplate.placeholder(variable)));
+        templates.put(name, MailTemplate.compile(templateEngine.process(name, context), variables));
+    }
+}
@@ -0,0 +1,44 @@
+package com.promoticon.mail;
+
+import com.promoticon.domain.OutboxMail;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.LockModeType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Transactional(readOnly = true)
+public interface OutboxMailRepository extends JpaRepository<OutboxMail, Long> {
+
+    long countByStatus(OutboxMail.Status status);
+
+    @Query("select m.id from OutboxMail m where m.status = 'PENDING' and m.nextAttemptAt <= :now order by m.id")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // 다른 인스턴스가 먼저 가져간 행은 nextAttemptAt 이 미래로 바뀌어 있으므로 건너뛴다.
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update OutboxMail m set m.claimToken = :claimToken, m.nextAttemptAt = :leaseUntil " +
+            "where m.id in :ids and m.status = 'PENDING' and m.nextAttemptAt <= :now")
+    int claim(@Param("ids") List<Long> ids, @Param("claimToken") String claimToken,
+              @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    List<OutboxMail> findByClaimToken(String claimToken);
+
+    // lease 가 지나 다른 디스패처가 다시 가져갔으면 claimToken 이 바뀌어 있으므로 건드리지 않는다.
+    @Transactional
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    OutboxMail findByIdAndClaimToken(Long id, String claimToken);
+
+    @Transactional
+    @Modifying
+    @Query("delete from OutboxMail m where m.id = :id and m.claimToken = :claimToken")
+    int deleteClaimed(@Param("id") Long id, @Param("claimToken") String claimToken);
+}
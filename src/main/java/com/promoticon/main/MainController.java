@@ -1,19 +1,25 @@
 package com.promoticon.main;
 
 import com.promoticon.account.CurrentUser;
+import com.promoticon.account.MemberCounter;
 import com.promoticon.domain.Account;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 
 @Controller
+@RequiredArgsConstructor
 public class MainController {
 
+    private final MemberCounter memberCounter;
+
     @GetMapping("/")
     public String home(@CurrentUser Account account, Model model) {
         if (account != null) {
             model.addAttribute(account);
         }
+        model.addAttribute("numberOfMembers", memberCounter.get());
 
         return "index";
     }
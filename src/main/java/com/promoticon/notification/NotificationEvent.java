@@ -0,0 +1,22 @@
+package com.promoticon.notification;
+
+import com.promoticon.domain.NotificationType;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 알림을 받겠다고 설정한 모든 인증된 계정에게 보낼 알림. 커밋된 뒤에 {@link NotificationFanOut} 이 나눠 보낸다.
+ */
+@Getter
+@RequiredArgsConstructor
+public class NotificationEvent {
+
+    private final NotificationType type;
+
+    private final String title;
+
+    private final String message;
+
+    /** 사이트 안의 경로 */
+    private final String link;
+}
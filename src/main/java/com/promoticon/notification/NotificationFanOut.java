@@ -0,0 +1,187 @@
+package com.promoticon.notification;
+
+import com.promoticon.config.AppProperties;
+import com.promoticon.domain.NotificationType;
+import com.promoticon.domain.OutboxMail;
+import com.promoticon.mail.MailOutbox;
+import com.promoticon.mail.MailTemplates;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 알림 하나를 설정에 맞는 계정 전체에게 나눠 보낸다. 수신자는 엔티티로 읽지 않고 id 기준 keyset 페이지로 필요한 컬럼만 읽으며,
+ * 페이지마다 웹 알림은 JDBC 배치로 넣고 이메일 알림은 아웃박스에 한 번에 넣는다. 페이지마다 따로 커밋하므로
+ * 중간에 실패하면 앞 페이지까지만 나가고 나머지는 다시 보내지 않는다.
+ */
+@Slf4j
+@Component
+public class NotificationFanOut {
+
+    static final String INSERT_NOTIFICATION_SQL = "insert into notification " +
+            "(title, link, message, checked, account_id, created_at, notification_type) values (?, ?, ?, false, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MailOutbox mailOutbox;
+    private final MailTemplates mailTemplates;
+    private final AppProperties appProperties;
+    private final NotificationProperties properties;
+    private final ThreadPoolTaskExecutor notificationTaskExecutor;
+
+    private final Timer selectTimer;
+    private final Timer webTimer;
+    private final Timer emailTimer;
+    private final Counter webRecipients;
+    private final Counter emailRecipients;
+
+    public NotificationFanOut(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                              MailOutbox mailOutbox, MailTemplates mailTemplates, AppProperties appProperties,
+                              NotificationProperties properties, ThreadPoolTaskExecutor notificationTaskExecutor,
+                              MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mailOutbox = mailOutbox;
+        this.mailTemplates = mailTemplates;
+        this.appProperties = appProperties;
+        this.properties = properties;
+        this.notificationTaskExecutor = notificationTaskExecutor;
+
+        this.selectTimer = Timer.builder("notification.fanout").tag("stage", "select").register(meterRegistry);
+        this.webTimer = Timer.builder("notification.fanout").tag("stage", "web").register(meterRegistry);
+        this.emailTimer = Timer.builder("notification.fanout").tag("stage", "email").register(meterRegistry);
+        this.webRecipients = Counter.builder("notification.fanout.recipients").tag("channel", "web").register(meterRegistry);
+        this.emailRecipients = Counter.builder("notification.fanout.recipients").tag("channel", "email").register(meterRegistry);
+    }
+
+    @TransactionalEventListener
+    public void handleNotificationEvent(NotificationEvent event) {
+        try {
+            notificationTaskExecutor.execute(() -> fanOut(event));
+        } catch (TaskRejectedException e) {
+            log.warn("notification queue is full, dropped {} notification '{}'", event.getType(), event.getTitle());
+        }
+    }
+
+    public void fanOut(NotificationEvent event) {
+        String sql = recipientsSql(event.getType());
+        long start = System.nanoTime();
+        long lastId = 0;
+        int web = 0;
+        int email = 0;
+        while (true) {
+            long afterId = lastId;
+            List<Recipient> page = selectTimer.record(() -> jdbcTemplate.query(sql, (rs, rowNum) -> new Recipient(
+                    rs.getLong(1), rs.getString(2), rs.getString(3), rs.getBoolean(4), rs.getBoolean(5)),
+                    afterId, properties.getPageSize()));
+            if (page.isEmpty()) {
+                break;
+            }
+
+            int[] sent = transactionTemplate.execute(status -> new int[]{insertWebNotifications(event, page), enqueueEmails(event, page)});
+            web += sent[0];
+            email += sent[1];
+            lastId = page.get(page.size() - 1).id;
+            if (page.size() < properties.getPageSize()) {
+                break;
+            }
+        }
+        log.info("{} notification '{}' fanned out to {} web and {} email recipients in {} ms",
+                event.getType(), event.getTitle(), web, email, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private int insertWebNotifications(NotificationEvent event, List<Recipient> page) {
+        List<Recipient> recipients = new ArrayList<>(page.size());
+        page.stream().filter(recipient -> recipient.byWeb).forEach(recipients::add);
+        if (recipients.isEmpty()) {
+            return 0;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        webTimer.record(() -> jdbcTemplate.batchUpdate(INSERT_NOTIFICATION_SQL, recipients, recipients.size(), (ps, recipient) -> {
+            ps.setString(1, event.getTitle());
+            ps.setString(2, event.getLink());
+            ps.setString(3, event.getMessage());
+            ps.setLong(4, recipient.id);
+            ps.setTimestamp(5, now);
+            ps.setString(6, event.getType().name());
+        }));
+        webRecipients.increment(recipients.size());
+        return recipients.size();
+    }
+
+    private int enqueueEmails(NotificationEvent event, List<Recipient> page) {
+        List<OutboxMail> mails = new ArrayList<>();
+        emailTimer.record(() -> {
+            String link = appProperties.getHost() + event.getLink();
+            for (Recipient recipient : page) {
+                if (!recipient.byEmail) {
+                    continue;
+                }
+                String html = mailTemplates.render(MailTemplates.SIMPLE_LINK, Map.of(
+                        "nickname", recipient.username,
+                        "message", event.getMessage(),
+                        "link", link,
+                        "linkName", event.getTitle()));
+                mails.add(MailOutbox.newMail(recipient.email, "프로모티콘: " + event.getTitle(),
+                        event.getMessage() + "\n" + link, html));
+            }
+            if (!mails.isEmpty()) {
+                mailOutbox.enqueueAll(mails);
+            }
+        });
+        emailRecipients.increment(mails.size());
+        return mails.size();
+    }
+
+    private static String recipientsSql(NotificationType type) {
+        String byWeb;
+        String byEmail;
+        switch (type) {
+            case EMOTICON_CREATED:
+                byWeb = "emoticon_created_by_web";
+                byEmail = "emoticon_created_by_email";
+                break;
+            case FEEDBACK_UPDATED:
+                byWeb = "feedback_updated_by_web";
+                byEmail = "feedback_updated_by_email";
+                break;
+            default:
+                throw new IllegalArgumentException(type.name());
+        }
+        return "select id, email, username, " + byWeb + ", " + byEmail + " from account " +
+                "where id > ? and email_verified = true and (" + byWeb + " = true or " + byEmail + " = true) " +
+                "order by id limit ?";
+    }
+
+    private static class Recipient {
+
+        private final long id;
+        private final String email;
+        private final String username;
+        private final boolean byWeb;
+        private final boolean byEmail;
+
+        Recipient(long id, String email, String username, boolean byWeb, boolean byEmail) {
+            this.id = id;
+            this.email = email;
+            this.username = username;
+            this.byWeb = byWeb;
+            this.byEmail = byEmail;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.promoticon.notification;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties("app.notification")
+public class NotificationProperties {
+
+    /** 한 번에 읽고 한 트랜잭션으로 쓰는 수신자 수 */
+    private int pageSize = 500;
+}
@@ -0,0 +1,219 @@
+package com.promoticon.purge;
+
+import com.promoticon.account.NavbarRenderCache;
+import com.promoticon.account.UserAccountCache;
+import com.promoticon.account.UsernameIndex;
+import com.promoticon.config.CachingPersistentTokenRepository;
+import com.promoticon.domain.Account;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * 오래 쓰이지 않은 remember-me 토큰과 인증하지 않고 버려진 가입을 지운다. 한 트랜잭션에서는 배치 하나만 지우고
+ * 배치 사이에 쉬어서 락을 오래 잡지 않는다. 계정은 id 기준 keyset 으로 읽으며, 읽은 뒤에 인증된 계정은 지우지 않는다.
+ * 지운 계정의 유저네임은 블룸 필터에 남지만 블룸 필터는 거짓 양성을 허용하고 매일 다시 만들어지므로 그 전에 돌도록 한다.
+ * 배치 사이에 쉬는 동안 다른 스케줄 작업이 밀리지 않도록 전용 스레드에서 돈다.
+ * created_at 이 없는 계정(이전 데이터, 인증 메일 없이 가져온 계정)은 인증 메일을 받은 적이 없으므로 지우지 않는다.
+ */
+@Slf4j
+@Component
+public class PurgeJob {
+
+    static final String SELECT_ABANDONED_SQL = "select id, email, username, profile_image_id, profile_thumbnail_id from account " +
+            "where id > ? and email_verified = false and created_at < ? order by id limit ?";
+    static final String DELETE_NOTIFICATIONS_SQL = "delete from notification where account_id in " +
+            "(select id from account where id in (:ids) and email_verified = false)";
+    static final String DELETE_ACCOUNTS_SQL = "delete from account where id in (:ids) and email_verified = false";
+    static final String SELECT_REMAINING_SQL = "select id from account where id in (:ids)";
+    static final String DELETE_PROFILE_IMAGES_SQL = "delete from profile_image where id in (:ids)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final CachingPersistentTokenRepository tokenRepository;
+    private final UserAccountCache userAccountCache;
+    private final NavbarRenderCache navbarRenderCache;
+    private final UsernameIndex usernameIndex;
+    private final PurgeProperties properties;
+    private final ThreadPoolTaskExecutor purgeTaskExecutor;
+
+    private final DistributionSummary rememberMeRows;
+    private final DistributionSummary accountRows;
+
+    public PurgeJob(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                    EntityManagerFactory entityManagerFactory, CachingPersistentTokenRepository tokenRepository,
+                    UserAccountCache userAccountCache, NavbarRenderCache navbarRenderCache, UsernameIndex usernameIndex,
+                    PurgeProperties properties, ThreadPoolTaskExecutor purgeTaskExecutor, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.tokenRepository = tokenRepository;
+        this.userAccountCache = userAccountCache;
+        this.navbarRenderCache = navbarRenderCache;
+        this.usernameIndex = usernameIndex;
+        this.properties = properties;
+        this.purgeTaskExecutor = purgeTaskExecutor;
+
+        this.rememberMeRows = DistributionSummary.builder("purge.rows").tag("target", "remember_me").register(meterRegistry);
+        this.accountRows = DistributionSummary.builder("purge.rows").tag("target", "unverified_account").register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.purge.cron:0 30 3 * * *}")
+    public void purge() {
+        try {
+            purgeTaskExecutor.execute(() -> {
+                purgeRememberMeTokens();
+                purgeAbandonedSignUps();
+            });
+        } catch (TaskRejectedException e) {
+            log.warn("previous purge is still running, skipping this run");
+        }
+    }
+
+    public int purgeRememberMeTokens() {
+        long start = System.nanoTime();
+        Date cutoff = Date.from(Instant.now().minus(properties.getRememberMeRetention()));
+        int total = 0;
+        for (int batch = 0; batch < properties.getMaxBatchesPerRun(); batch++) {
+            int deleted = tokenRepository.removeTokensUnusedSince(cutoff, properties.getBatchSize());
+            total += deleted;
+            if (deleted < properties.getBatchSize() || !pause()) {
+                break;
+            }
+        }
+
+        rememberMeRows.record(total);
+        log.info("purged {} remember-me tokens unused since {} in {} ms", total, cutoff, (System.nanoTime() - start) / 1_000_000);
+        return total;
+    }
+
+    public int purgeAbandonedSignUps() {
+        long start = System.nanoTime();
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minus(properties.getUnverifiedAccountRetention()));
+        long afterId = 0;
+        int total = 0;
+        for (int batch = 0; batch < properties.getMaxBatchesPerRun(); batch++) {
+            List<Candidate> candidates = jdbcTemplate.query(SELECT_ABANDONED_SQL, (rs, rowNum) -> new Candidate(
+                    rs.getLong(1), rs.getString(2), rs.getString(3),
+                    (Long) rs.getObject(4), (Long) rs.getObject(5)), afterId, cutoff, properties.getBatchSize());
+            if (candidates.isEmpty()) {
+                break;
+            }
+
+            afterId = candidates.get(candidates.size() - 1).id;
+            List<Candidate> deleted = transactionTemplate.execute(status -> delete(candidates));
+            evictSecondLevelCache(deleted);
+            total += deleted.size();
+            if (candidates.size() < properties.getBatchSize() || !pause()) {
+                break;
+            }
+        }
+
+        accountRows.record(total);
+        log.info("purged {} unverified accounts created before {} in {} ms", total, cutoff, (System.nanoTime() - start) / 1_000_000);
+        return total;
+    }
+
+    private List<Candidate> delete(List<Candidate> candidates) {
+        Map<String, Object> ids = Map.of("ids", candidates.stream().map(Candidate::getId).collect(Collectors.toList()));
+        namedParameterJdbcTemplate.update(DELETE_NOTIFICATIONS_SQL, ids);
+        int count = namedParameterJdbcTemplate.update(DELETE_ACCOUNTS_SQL, ids);
+
+        // 읽은 뒤에 인증을 마친 계정은 지워지지 않았으므로 빼고 정리한다.
+        List<Candidate> deleted = candidates;
+        if (count < candidates.size()) {
+            Set<Long> remaining = new HashSet<>(namedParameterJdbcTemplate.queryForList(SELECT_REMAINING_SQL, ids, Long.class));
+            deleted = candidates.stream().filter(candidate -> !remaining.contains(candidate.id)).collect(Collectors.toList());
+        }
+        if (deleted.isEmpty()) {
+            return deleted;
+        }
+
+        // 이미지 파일은 참조가 없어지면 BlobCompactionJob 이 회수한다.
+        List<Long> imageIds = deleted.stream()
+                .flatMap(candidate -> Arrays.stream(new Long[]{candidate.profileImageId, candidate.profileThumbnailId}))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        if (!imageIds.isEmpty()) {
+            namedParameterJdbcTemplate.update(DELETE_PROFILE_IMAGES_SQL, Map.of("ids", imageIds));
+        }
+
+        List<String> usernames = deleted.stream().map(Candidate::getUsername).filter(Objects::nonNull).collect(Collectors.toList());
+        tokenRepository.removeUsersTokens(usernames);
+        for (Candidate candidate : deleted) {
+            userAccountCache.evict(Account.builder().email(candidate.email).username(candidate.username).build());
+            navbarRenderCache.evict(candidate.id);
+            if (candidate.username != null) {
+                usernameIndex.remove(candidate.username);
+            }
+        }
+        return deleted;
+    }
+
+    private void evictSecondLevelCache(List<Candidate> deleted) {
+        if (deleted.isEmpty()) {
+            return;
+        }
+
+        // JDBC 로 지웠으므로 2차 캐시에 남은 엔티티, 유저네임, 이메일 조회 결과를 직접 지운다.
+        Cache cache = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache();
+        deleted.forEach(candidate -> cache.evictEntityData(Account.class, candidate.id));
+        cache.evictNaturalIdData(Account.class);
+        cache.evictQueryRegion(Account.BY_EMAIL_CACHE_REGION);
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(properties.getPause().toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static class Candidate {
+
+        private final long id;
+        private final String email;
+        private final String username;
+        private final Long profileImageId;
+        private final Long profileThumbnailId;
+
+        Candidate(long id, String email, String username, Long profileImageId, Long profileThumbnailId) {
+            this.id = id;
+            this.email = email;
+            this.username = username;
+            this.profileImageId = profileImageId;
+            this.profileThumbnailId = profileThumbnailId;
+        }
+
+        long getId() {
+            return id;
+        }
+
+        String getUsername() {
+            return username;
+        }
+    }
+}
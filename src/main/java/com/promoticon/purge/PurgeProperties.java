@@ -0,0 +1,28 @@
+package com.promoticon.purge;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties("app.purge")
+public class PurgeProperties {
+
+    /** 마지막으로 쓰인 뒤 이 기간이 지난 remember-me 토큰을 지운다. remember-me 유효 기간(기본 2주)보다 짧으면 안 된다. */
+    private Duration rememberMeRetention = Duration.ofDays(14);
+
+    /** 가입 후 이 기간 동안 이메일 인증을 하지 않은 계정을 지운다. */
+    private Duration unverifiedAccountRetention = Duration.ofDays(7);
+
+    /** 한 트랜잭션에서 지우는 행 수 */
+    private int batchSize = 500;
+
+    /** 배치 사이에 쉬는 시간. 지우는 동안 다른 요청이 락을 오래 기다리지 않게 한다. */
+    private Duration pause = Duration.ofMillis(100);
+
+    /** 한 번 돌 때 대상마다 처리하는 최대 배치 수. 남은 행은 다음 실행에서 지운다. */
+    private int maxBatchesPerRun = 200;
+}
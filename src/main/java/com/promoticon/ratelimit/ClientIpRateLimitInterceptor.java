@@ -0,0 +1,50 @@
+package com.promoticon.ratelimit;
+
+import com.promoticon.account.UsernameController;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+
+/**
+ * 익명으로 호출할 수 있는 가입, 로그인 링크 요청과 유저네임 자동 완성을 클라이언트 IP 마다 제한한다.
+ * 핸들러의 바인딩과 검증보다 먼저 돌기 때문에 거절된 요청은 DB 에 닿지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class ClientIpRateLimitInterceptor implements HandlerInterceptor {
+
+    private final RateLimiters rateLimiters;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        String path = UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+        Duration refillInterval;
+        if (HttpMethod.POST.matches(request.getMethod())) {
+            if (rateLimiters.tryClientIp(path, request.getRemoteAddr())) {
+                return true;
+            }
+            refillInterval = rateLimiters.getClientIpRefillInterval();
+        } else if (UsernameController.USERNAMES_URL.equals(path)) {
+            // 자동 완성으로 가입된 유저네임을 긁어 가지 못하게 한다.
+            if (rateLimiters.tryUsernameSearch(request.getRemoteAddr())) {
+                return true;
+            }
+            refillInterval = rateLimiters.getUsernameSearchRefillInterval();
+        } else {
+            return true;
+        }
+
+        long retryAfter = Math.max(1, refillInterval.getSeconds());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "요청이 너무 많습니다. 잠시 후 다시 시도하세요.");
+        return false;
+    }
+}
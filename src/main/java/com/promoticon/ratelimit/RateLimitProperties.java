@@ -0,0 +1,40 @@
+package com.promoticon.ratelimit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties("app.rate-limit")
+public class RateLimitProperties {
+
+    /** 이메일 주소마다 로그인 링크 발송 */
+    private Limit emailLogin = new Limit(1, Duration.ofMinutes(5));
+
+    /** 계정마다 가입 인증 메일 발송 */
+    private Limit confirmEmail = new Limit(1, Duration.ofHours(1));
+
+    /** 클라이언트 IP 마다 가입, 로그인 링크 요청 */
+    private Limit clientIp = new Limit(20, Duration.ofMinutes(10));
+
+    /** 클라이언트 IP 마다 유저네임 자동 완성. 글자를 칠 때마다 부르므로 넉넉하게 둔다. */
+    private Limit usernameSearch = new Limit(120, Duration.ofMinutes(1));
+
+    /** 제한기마다 기억하는 키의 최대 개수 */
+    private int maxKeys = 100_000;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+
+        private int capacity;
+
+        private Duration period;
+    }
+}
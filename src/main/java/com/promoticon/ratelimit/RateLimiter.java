@@ -0,0 +1,121 @@
+package com.promoticon.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * GCRA(generic cell rate algorithm) 방식의 토큰 버킷. 키마다 다음 토큰이 채워지는 시각(TAT) 하나만 CAS 로 갱신하므로 락을 잡지 않는다.
+ * 비어 있던 키는 capacity 번까지 연달아 허용하고, 그 뒤로는 period / capacity 마다 하나씩 다시 허용한다.
+ */
+public class RateLimiter {
+
+    private static final int STRIPES = 16;
+
+    private final String name;
+    private final long emissionInterval;
+    private final long burstTolerance;
+    private final int maxKeysPerStripe;
+    private final LongSupplier nanoClock;
+    private final ConcurrentHashMap<String, AtomicLong>[] stripes;
+
+    public RateLimiter(String name, int capacity, Duration period, int maxKeys) {
+        this(name, capacity, period, maxKeys, System::nanoTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    RateLimiter(String name, int capacity, Duration period, int maxKeys, LongSupplier nanoClock) {
+        if (capacity < 1 || period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException(name + ": capacity 와 period 는 0보다 커야 합니다.");
+        }
+        this.name = name;
+        this.emissionInterval = period.toNanos() / capacity;
+        this.burstTolerance = emissionInterval * (capacity - 1);
+        this.maxKeysPerStripe = Math.max(1, maxKeys / STRIPES);
+        this.nanoClock = nanoClock;
+        this.stripes = new ConcurrentHashMap[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Duration getRefillInterval() {
+        return Duration.ofNanos(emissionInterval);
+    }
+
+    public boolean tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        ConcurrentHashMap<String, AtomicLong> stripe = stripe(key);
+        AtomicLong tat = stripe.get(key);
+        if (tat == null) {
+            // 키를 마구 바꿔 가며 보내는 요청에 메모리가 밀리지 않도록 찼으면 비운다. 처음 보는 키를 거절하면
+            // 정상 사용자까지 막히므로, 비울 키가 없으면 가장 오래된 키를 지워서라도 자리를 만든다.
+            if (stripe.size() >= maxKeysPerStripe && evictIdle(stripe, now) == 0) {
+                evictOldest(stripe);
+            }
+            tat = stripe.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long current = tat.get();
+            long next = Math.max(current, now);
+            if (next - now > burstTolerance) {
+                return false;
+            }
+            if (tat.compareAndSet(current, next + emissionInterval)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 버킷이 다시 가득 찬 키는 처음 보는 키와 상태가 같으므로 지운다.
+     * 지우는 순간 같은 키로 들어온 요청은 한 번 더 허용될 수 있지만, 그만큼 느슨해지는 것은 감수한다.
+     */
+    public int evictIdle() {
+        long now = nanoClock.getAsLong();
+        int evicted = 0;
+        for (ConcurrentHashMap<String, AtomicLong> stripe : stripes) {
+            evicted += evictIdle(stripe, now);
+        }
+        return evicted;
+    }
+
+    public int size() {
+        int size = 0;
+        for (ConcurrentHashMap<String, AtomicLong> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private static int evictIdle(ConcurrentHashMap<String, AtomicLong> stripe, long now) {
+        int before = stripe.size();
+        stripe.values().removeIf(tat -> tat.get() - now <= 0);
+        return Math.max(0, before - stripe.size());
+    }
+
+    /**
+     * TAT 가 가장 이른 키부터 스트라이프의 1/8 을 지운다. 지운 키는 다음 요청에서 다시 가득 찬 버킷으로 시작한다.
+     */
+    private static int evictOldest(ConcurrentHashMap<String, AtomicLong> stripe) {
+        long[] tats = stripe.values().stream().mapToLong(AtomicLong::get).sorted().toArray();
+        if (tats.length == 0) {
+            return 0;
+        }
+        long threshold = tats[Math.max(0, tats.length / 8 - 1)];
+        int before = stripe.size();
+        stripe.values().removeIf(tat -> tat.get() <= threshold);
+        return Math.max(0, before - stripe.size());
+    }
+
+    private ConcurrentHashMap<String, AtomicLong> stripe(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+}
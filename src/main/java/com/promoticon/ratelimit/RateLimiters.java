@@ -0,0 +1,91 @@
+package com.promoticon.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+@Slf4j
+@Component
+public class RateLimiters {
+
+    private final RateLimiter emailLogin;
+    private final RateLimiter confirmEmail;
+    private final RateLimiter clientIp;
+    private final RateLimiter usernameSearch;
+    private final Map<RateLimiter, Counter> rejected = new HashMap<>();
+
+    public RateLimiters(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.emailLogin = create("emailLogin", properties.getEmailLogin(), properties.getMaxKeys());
+        this.confirmEmail = create("confirmEmail", properties.getConfirmEmail(), properties.getMaxKeys());
+        this.clientIp = create("clientIp", properties.getClientIp(), properties.getMaxKeys());
+        this.usernameSearch = create("usernameSearch", properties.getUsernameSearch(), properties.getMaxKeys());
+
+        for (RateLimiter limiter : all()) {
+            Gauge.builder("rate.limit.keys", limiter, RateLimiter::size)
+                    .tag("limiter", limiter.getName())
+                    .register(meterRegistry);
+            rejected.put(limiter, Counter.builder("rate.limit.rejected")
+                    .tag("limiter", limiter.getName())
+                    .register(meterRegistry));
+        }
+    }
+
+    public boolean tryEmailLogin(String email) {
+        return tryAcquire(emailLogin, email == null ? "" : email.trim().toLowerCase(Locale.ROOT));
+    }
+
+    public boolean tryConfirmEmail(Long accountId) {
+        return tryAcquire(confirmEmail, String.valueOf(accountId));
+    }
+
+    public boolean tryClientIp(String path, String address) {
+        return tryAcquire(clientIp, path + " " + address);
+    }
+
+    public Duration getClientIpRefillInterval() {
+        return clientIp.getRefillInterval();
+    }
+
+    public boolean tryUsernameSearch(String address) {
+        return tryAcquire(usernameSearch, address);
+    }
+
+    public Duration getUsernameSearchRefillInterval() {
+        return usernameSearch.getRefillInterval();
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        for (RateLimiter limiter : all()) {
+            int evicted = limiter.evictIdle();
+            if (evicted > 0) {
+                log.debug("rate limiter {}: {} idle keys evicted, {} left", limiter.getName(), evicted, limiter.size());
+            }
+        }
+    }
+
+    private boolean tryAcquire(RateLimiter limiter, String key) {
+        boolean acquired = limiter.tryAcquire(key);
+        if (!acquired) {
+            rejected.get(limiter).increment();
+        }
+        return acquired;
+    }
+
+    private List<RateLimiter> all() {
+        return List.of(emailLogin, confirmEmail, clientIp, usernameSearch);
+    }
+
+    private static RateLimiter create(String name, RateLimitProperties.Limit limit, int maxKeys) {
+        return new RateLimiter(name, limit.getCapacity(), limit.getPeriod(), maxKeys);
+    }
+}
@@ -11,6 +11,7 @@ import com.promoticon.settings.validator.PasswordFormValidator;
 import com.promoticon.settings.validator.UsernameValidator;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.Errors;
@@ -127,7 +128,13 @@ public class SettingsController {
             model.addAttribute(account);
             return SETTINGS_ACCOUNT_VIEW_NAME;
         }
-        accountService.updateUsername(account, usernameForm.getUsername());
+        try {
+            accountService.updateUsername(account, usernameForm.getUsername());
+        } catch (DataIntegrityViolationException e) {
+            errors.rejectValue("username", "wrong.value", "입력하신 유저네임이 이미 존재합니다.");
+            model.addAttribute(account);
+            return SETTINGS_ACCOUNT_VIEW_NAME;
+        }
         redirectAttributes.addFlashAttribute("message", "유저이름을 성공적으로 변경했습니다.");
         return "redirect:" + SETTINGS_ACCOUNT_URL;
 
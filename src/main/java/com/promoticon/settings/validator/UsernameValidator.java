@@ -1,7 +1,7 @@
 package com.promoticon.settings.validator;
 
+import com.promoticon.account.AccountBloomFilters;
 import com.promoticon.account.AccountRepository;
-import com.promoticon.domain.Account;
 import com.promoticon.settings.form.UsernameForm;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
@@ -13,6 +13,7 @@ import org.springframework.validation.Validator;
 public class UsernameValidator implements Validator {
 
     private final AccountRepository accountRepository;
+    private final AccountBloomFilters accountBloomFilters;
 
     @Override
     public boolean supports(Class<?> clazz) {
@@ -22,8 +23,8 @@ public class UsernameValidator implements Validator {
     @Override
     public void validate(Object target, Errors errors) {
         UsernameForm usernameForm = (UsernameForm) target;
-        Account byUsername = accountRepository.findByUsername(usernameForm.getUsername());
-        if (byUsername != null) {
+        String username = usernameForm.getUsername();
+        if (accountBloomFilters.mightContainUsername(username) && accountRepository.existsByUsername(username)) {
             errors.rejectValue("username", "wrong.value", "입력하신 유저네임이 이미 존재합니다.");
         }
     }
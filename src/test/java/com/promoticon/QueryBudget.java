@@ -0,0 +1,57 @@
+package com.promoticon;
+
+import com.promoticon.datasource.QueryStats;
+import com.promoticon.datasource.QueryStatsFilter;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.Map;
+
+/**
+ * 요청 하나가 실행한 SQL 문 수의 상한을 확인한다. N+1 이 생기면 같은 SQL 이 되풀이되므로 {@link #withoutDuplicates()} 로 잡는다.
+ * <pre>
+ * mockMvc.perform(get("/profile/mea"))
+ *         .andExpect(QueryBudget.atMost(2).withoutDuplicates());
+ * </pre>
+ */
+public class QueryBudget implements ResultMatcher {
+
+    private final int maxStatements;
+    private final int maxRepeats;
+
+    private QueryBudget(int maxStatements, int maxRepeats) {
+        this.maxStatements = maxStatements;
+        this.maxRepeats = maxRepeats;
+    }
+
+    public static QueryBudget atMost(int statements) {
+        return new QueryBudget(statements, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 같은 SQL 을 두 번 이상 실행하면 실패한다.
+     */
+    public QueryBudget withoutDuplicates() {
+        return new QueryBudget(maxStatements, 1);
+    }
+
+    @Override
+    public void match(MvcResult result) {
+        QueryStats stats = (QueryStats) result.getRequest().getAttribute(QueryStatsFilter.STATS_ATTRIBUTE);
+        if (stats == null) {
+            throw new AssertionError("SQL 을 세지 않았습니다. QueryStatsFilter 가 등록되어 있는지 확인하세요.");
+        }
+
+        if (stats.getStatements() > maxStatements) {
+            throw new AssertionError("SQL 을 " + maxStatements + "개까지 실행해야 하는데 " + stats.getStatements()
+                    + "개 실행했습니다: " + stats.getExecutions().keySet());
+        }
+        if (maxRepeats == Integer.MAX_VALUE) {
+            return;
+        }
+        Map<String, Integer> repeated = stats.getRepeated(maxRepeats + 1);
+        if (!repeated.isEmpty()) {
+            throw new AssertionError("같은 SQL 을 되풀이했습니다: " + repeated);
+        }
+    }
+}
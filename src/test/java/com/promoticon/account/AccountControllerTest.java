@@ -1,20 +1,22 @@
 package com.promoticon.account;
 
+import com.promoticon.QueryBudget;
+import com.promoticon.WithAccount;
 import com.promoticon.domain.Account;
+import com.promoticon.mail.OutboxMailRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.BDDMockito.then;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.authenticated;
 import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.unauthenticated;
@@ -30,6 +32,10 @@ class AccountControllerTest {
 
     @Autowired private AccountRepository accountRepository;
 
+    @Autowired private EmailTokenService emailTokenService;
+
+    @Autowired private OutboxMailRepository outboxMailRepository;
+
     @MockBean
     JavaMailSender javaMailSender;
 
@@ -54,17 +60,17 @@ class AccountControllerTest {
                 .username("hwan")
                 .build();
         Account newAccount = accountRepository.save(account);
-        newAccount.generateEmailCheckToken();
+        String token = emailTokenService.generate(newAccount, EmailTokenService.Purpose.CONFIRM_EMAIL);
 
         mockMvc.perform(get("/check-email-token")
-                        .param("token", newAccount.getEmailCheckToken())
-                        .param("email", newAccount.getEmail()))
+                        .param("token", token))
                 .andExpect(status().isOk())
                 .andExpect(model().attributeDoesNotExist("error"))
                 .andExpect(model().attributeExists("username"))
                 .andExpect(model().attributeExists("numberOfUser"))
                 .andExpect(view().name("account/checked-email"))
-                .andExpect(authenticated().withUsername("hwan"));
+                .andExpect(authenticated().withUsername("hwan"))
+                .andExpect(QueryBudget.atMost(4).withoutDuplicates());
     }
 
     @DisplayName("회원 가입 화면")
@@ -74,7 +80,8 @@ class AccountControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(view().name("account/sign-up"))
                 .andExpect(model().attributeExists("signUpForm"))
-                .andExpect(unauthenticated());
+                .andExpect(unauthenticated())
+                .andExpect(QueryBudget.atMost(0));
     }
 
     @DisplayName("회원 가입 처리: 입력값 오류")
@@ -105,9 +112,75 @@ class AccountControllerTest {
         Account account = accountRepository.findByEmail("hwan@email.com");
         assertNotNull(account);
         assertNotEquals(account.getPassword(), "12345678");
-        assertNotNull(account.getEmailCheckToken());
 
         assertTrue(accountRepository.existsByEmail("hwan@email.com"));
-        then(javaMailSender).should().send(any(SimpleMailMessage.class));
+        assertTrue(outboxMailRepository.findAll().stream()
+                .anyMatch(mail -> mail.getRecipient().equals("hwan@email.com")));
+    }
+
+    @DisplayName("이메일 로그인: 같은 이메일로 다시 요청하면 DB 조회 없이 거절")
+    @Test
+    void emailLoginRateLimited() throws Exception {
+        mockMvc.perform(post("/email-login")
+                .param("email", "limited@email.com")
+                .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("error", "유효한 이메일 주소가 아닙니다."));
+
+        mockMvc.perform(post("/email-login")
+                .param("email", "Limited@email.com")
+                .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("error", "이메일 로그인은 5분 뒤에 사용할 수 있습니다."))
+                .andExpect(view().name("account/email-login"));
+    }
+
+    @DisplayName("이메일 로그인: 로그인 링크는 한 번만 사용 가능")
+    @Test
+    void loginByEmailOnlyOnce() throws Exception {
+        Account account = accountRepository.save(Account.builder()
+                .email("link@email.com")
+                .password("12345678")
+                .username("link")
+                .build());
+        String token = emailTokenService.generate(account, EmailTokenService.Purpose.LOGIN);
+
+        mockMvc.perform(get("/login-by-email").param("token", token))
+                .andExpect(model().attributeDoesNotExist("error"))
+                .andExpect(authenticated().withUsername("link"));
+
+        mockMvc.perform(get("/login-by-email").param("token", token))
+                .andExpect(model().attributeExists("error"))
+                .andExpect(unauthenticated());
+    }
+
+    @WithAccount("mea")
+    @DisplayName("프로필: 내 프로필에는 이메일과 수정 버튼이 보인다")
+    @Test
+    void viewOwnProfile() throws Exception {
+        mockMvc.perform(get("/profile/mea"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("account/profile"))
+                .andExpect(model().attribute("isOwner", true))
+                .andExpect(model().attributeExists("navbarHtml"))
+                .andExpect(content().string(containsString("mea@gmail.com")));
+    }
+
+    @WithAccount("mea")
+    @DisplayName("프로필: 다른 사용자의 이메일은 보이지 않는다")
+    @Test
+    void viewOtherProfile() throws Exception {
+        accountRepository.save(Account.builder()
+                .email("other@email.com")
+                .password("12345678")
+                .username("other")
+                .bio("다른 사용자")
+                .build());
+
+        mockMvc.perform(get("/profile/other"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("isOwner", false))
+                .andExpect(content().string(containsString("다른 사용자")))
+                .andExpect(content().string(not(containsString("other@email.com"))));
     }
-}
\ No newline at end of file
+}
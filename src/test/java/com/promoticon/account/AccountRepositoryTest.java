@@ -0,0 +1,87 @@
+package com.promoticon.account;
+
+import com.promoticon.domain.Account;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.mail-outbox.poll-interval-ms=3600000")
+class AccountRepositoryTest {
+
+    @Autowired AccountRepository accountRepository;
+    @Autowired AccountService accountService;
+    @Autowired EntityManagerFactory entityManagerFactory;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void beforeEach() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void afterEach() {
+        SecurityContextHolder.clearContext();
+        accountRepository.deleteAll();
+    }
+
+    @DisplayName("유저네임 조회: 캐시에 올라간 뒤에는 쿼리를 실행하지 않는다")
+    @Test
+    void findByUsernameFromCache() {
+        Account account = save("cached");
+
+        assertEquals(account.getId(), accountRepository.findByUsername("cached").getId());
+        long statements = statistics.getPrepareStatementCount();
+        assertEquals(account.getId(), accountRepository.findByUsername("cached").getId());
+
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getNaturalIdCacheHitCount() > 0);
+        assertNull(accountRepository.findByUsername("missing"));
+    }
+
+    @DisplayName("이메일 조회: 두 번째 조회는 쿼리 캐시와 2차 캐시에서 읽는다")
+    @Test
+    void findByEmailFromCache() {
+        Account account = save("email");
+
+        accountRepository.findByEmail("email@email.com");
+        long statements = statistics.getPrepareStatementCount();
+        assertEquals(account.getId(), accountRepository.findByEmail("email@email.com").getId());
+
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getQueryCacheHitCount() > 0);
+    }
+
+    @DisplayName("유저네임 변경: 캐시가 새 유저네임을 따라간다")
+    @Test
+    void updateUsernameKeepsCacheCoherent() {
+        Account account = save("before");
+        accountRepository.findByUsername("before");
+
+        accountService.updateUsername(accountService.getAccount(account.getId()), "after");
+
+        assertNull(accountRepository.findByUsername("before"));
+        Account renamed = accountRepository.findByUsername("after");
+        assertEquals(account.getId(), renamed.getId());
+        assertEquals("after", accountRepository.findById(account.getId()).orElseThrow().getUsername());
+    }
+
+    private Account save(String username) {
+        return accountRepository.save(Account.builder()
+                .email(username + "@email.com")
+                .username(username)
+                .password("12345678")
+                .build());
+    }
+}
@@ -0,0 +1,40 @@
+package com.promoticon.account;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    @DisplayName("넣은 값은 항상 있다고 하고, 오탐률은 설정값 근처에 머문다")
+    @Test
+    void noFalseNegatives() {
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filter.put("user" + i + "@email.com");
+        }
+
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(filter.mightContain("user" + i + "@email.com"));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other" + i + "@email.com")) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+        assertEquals(0.01, filter.expectedFalsePositiveRate(), 0.005);
+        assertTrue(filter.memoryBytes() < 150 * 1024);
+    }
+
+    @DisplayName("빈 필터는 아무것도 없다고 한다")
+    @Test
+    void empty() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+        assertFalse(filter.mightContain("mea"));
+        assertEquals(0.0, filter.expectedFalsePositiveRate());
+    }
+}
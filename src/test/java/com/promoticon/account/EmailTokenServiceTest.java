@@ -0,0 +1,83 @@
+package com.promoticon.account;
+
+import com.promoticon.domain.Account;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Optional;
+
+import static com.promoticon.account.EmailTokenService.Purpose.CONFIRM_EMAIL;
+import static com.promoticon.account.EmailTokenService.Purpose.LOGIN;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailTokenServiceTest {
+
+    Instant now = Instant.parse("2022-05-01T00:00:00Z");
+
+    Account account = Account.builder().id(42L).build();
+
+    EmailTokenService service(Instant instant) {
+        EmailTokenProperties properties = new EmailTokenProperties();
+        properties.setSecret(Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes()));
+        return new EmailTokenService(properties, Clock.fixed(instant, ZoneOffset.UTC));
+    }
+
+    @DisplayName("서명한 토큰에서 계정 id 를 꺼낸다")
+    @Test
+    void verify() {
+        String token = service(now).generate(account, CONFIRM_EMAIL);
+
+        assertEquals(Optional.of(42L), service(now.plusSeconds(60)).verify(token, CONFIRM_EMAIL));
+        assertEquals(Optional.empty(), service(now).verify(token, LOGIN));
+    }
+
+    @DisplayName("변조했거나 만료된 토큰은 거절한다")
+    @Test
+    void rejectTamperedOrExpired() {
+        EmailTokenService service = service(now);
+        String token = service.generate(account, LOGIN);
+        String tampered = (token.charAt(0) == 'A' ? 'B' : 'A') + token.substring(1);
+
+        assertFalse(service.verify(tampered, LOGIN).isPresent());
+        assertFalse(service.verify("not-a-token", LOGIN).isPresent());
+        assertFalse(service.verify(null, LOGIN).isPresent());
+        assertFalse(service(now.plus(Duration.ofMinutes(16))).verify(token, LOGIN).isPresent());
+    }
+
+    @DisplayName("로그인 토큰은 한 번만 사용할 수 있다")
+    @Test
+    void consumeLoginTokenOnce() {
+        EmailTokenService service = service(now);
+        String token = service.generate(account, LOGIN);
+
+        assertEquals(Optional.of(42L), service.consumeLoginToken(token));
+        assertEquals(Optional.empty(), service.consumeLoginToken(token));
+    }
+
+    @DisplayName("같은 바이트로 디코딩되는 다른 표기로 로그인 토큰을 다시 쓸 수 없다")
+    @Test
+    void rejectNonCanonicalReplay() {
+        EmailTokenService service = service(now);
+        String token = service.generate(account, LOGIN);
+        assertEquals(Optional.of(42L), service.consumeLoginToken(token));
+
+        char last = token.charAt(token.length() - 1);
+        String flipped = token.substring(0, token.length() - 1) + ALPHABET.charAt(ALPHABET.indexOf(last) ^ 1);
+        assertArrayEquals(macOf(token), macOf(flipped));
+
+        assertEquals(Optional.empty(), service.consumeLoginToken(flipped));
+        assertEquals(Optional.empty(), service.consumeLoginToken(token + "="));
+        assertFalse(service.verify(flipped, LOGIN).isPresent());
+    }
+
+    private static final String ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+
+    private static byte[] macOf(String token) {
+        return Base64.getUrlDecoder().decode(token.substring(token.indexOf('.') + 1));
+    }
+}
@@ -0,0 +1,62 @@
+package com.promoticon.account;
+
+import com.promoticon.domain.Account;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.mail-outbox.poll-interval-ms=3600000")
+class MemberCounterTest {
+
+    @Autowired MemberCounter memberCounter;
+    @Autowired AccountService accountService;
+    @Autowired AccountRepository accountRepository;
+
+    @AfterEach
+    void afterEach() {
+        SecurityContextHolder.clearContext();
+        accountRepository.deleteAll();
+        memberCounter.reconcile();
+    }
+
+    @DisplayName("이메일 인증을 마치면 한 번만 센다")
+    @Test
+    void countOnceOnCompleteSignUp() {
+        Account account = save("member", false);
+        long before = memberCounter.get();
+
+        accountService.completeSignUp(account);
+        assertEquals(before + 1, memberCounter.get());
+
+        accountService.completeSignUp(account);
+        assertEquals(before + 1, memberCounter.get());
+    }
+
+    @DisplayName("DB 와 어긋난 값은 다시 맞춘다")
+    @Test
+    void reconcile() {
+        memberCounter.reconcile();
+        long before = memberCounter.get();
+        save("verified", true);
+        save("unverified", false);
+        assertEquals(before, memberCounter.get());
+
+        memberCounter.reconcile();
+
+        assertEquals(before + 1, memberCounter.get());
+    }
+
+    private Account save(String username, boolean verified) {
+        return accountRepository.save(Account.builder()
+                .email(username + "@email.com")
+                .username(username)
+                .password("12345678")
+                .emailVerified(verified)
+                .build());
+    }
+}
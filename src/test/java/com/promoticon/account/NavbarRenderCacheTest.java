@@ -0,0 +1,70 @@
+package com.promoticon.account;
+
+import com.promoticon.WithAccount;
+import com.promoticon.domain.Account;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.web.csrf.CsrfToken;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.mail-outbox.poll-interval-ms=3600000")
+@AutoConfigureMockMvc
+class NavbarRenderCacheTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired AccountRepository accountRepository;
+    @Autowired NavbarRenderCache navbarRenderCache;
+
+    @AfterEach
+    void afterEach() {
+        accountRepository.deleteAll();
+    }
+
+    @WithAccount("mea")
+    @DisplayName("캐시한 상단 메뉴에는 요청마다 그 요청의 CSRF 토큰을 넣는다")
+    @Test
+    void fillCsrfTokenPerRequest() throws Exception {
+        MvcResult first = mockMvc.perform(get("/")).andExpect(status().isOk()).andReturn();
+        MvcResult second = mockMvc.perform(get("/")).andExpect(status().isOk()).andReturn();
+
+        String firstToken = csrfToken(first);
+        String secondToken = csrfToken(second);
+        assertNotEquals(firstToken, secondToken);
+        assertTrue(first.getResponse().getContentAsString().contains(firstToken));
+        assertTrue(second.getResponse().getContentAsString().contains(secondToken));
+        assertFalse(second.getResponse().getContentAsString().contains(firstToken));
+        assertFalse(second.getResponse().getContentAsString().contains(NavbarRenderCache.CSRF_PLACEHOLDER));
+    }
+
+    @WithAccount("mea")
+    @DisplayName("비우기 전까지는 캐시한 상단 메뉴를 쓰고, 비운 뒤에는 바뀐 정보로 다시 그린다")
+    @Test
+    void evict() throws Exception {
+        assertFalse(render().contains("/profile-image/"));
+
+        Account account = accountRepository.findByUsername("mea");
+        account.setProfileThumbnailId(42L);
+        accountRepository.save(account);
+        assertFalse(render().contains("/profile-image/42"));
+
+        navbarRenderCache.evict(account.getId());
+        assertTrue(render().contains("/profile-image/42"));
+    }
+
+    private String render() throws Exception {
+        return mockMvc.perform(get("/")).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+    }
+
+    private static String csrfToken(MvcResult result) {
+        return ((CsrfToken) result.getRequest().getAttribute(CsrfToken.class.getName())).getToken();
+    }
+}
@@ -0,0 +1,75 @@
+package com.promoticon.account;
+
+import com.promoticon.domain.Account;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * 상단 메뉴를 엔티티로 읽을 때와 프로젝션으로 읽을 때의 요청당 시간과 할당량을 비교한다.
+ * {@code mvn test -Pbenchmark} 로 실행한다.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "app.mail-outbox.poll-interval-ms=3600000")
+class ProfileQueryBenchmark {
+
+    private static final int ACCOUNTS = 1_000;
+    private static final int WARMUP = 5_000;
+    private static final int ITERATIONS = 50_000;
+
+    @Autowired AccountRepository accountRepository;
+
+    @AfterEach
+    void afterEach() {
+        accountRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void profileQueries() {
+        List<Account> accounts = new ArrayList<>(ACCOUNTS);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts.add(Account.builder()
+                    .email("user" + i + "@bench.com")
+                    .username("user" + i)
+                    .password("{noop}12345678")
+                    .emailVerified(true)
+                    .joinedAt(LocalDateTime.now())
+                    .bio("한 줄 소개 " + i)
+                    .url("https://promoticon.com/" + i)
+                    .occupation("개발자")
+                    .location("서울")
+                    .build());
+        }
+        List<Long> ids = new ArrayList<>(ACCOUNTS);
+        accountRepository.saveAll(accounts).forEach(account -> ids.add(account.getId()));
+
+        measure("navbar entity", i -> accountRepository.findById(ids.get(i % ACCOUNTS)));
+        measure("navbar projection", i -> accountRepository.findNavbarById(ids.get(i % ACCOUNTS)));
+    }
+
+    private static void measure(String name, IntConsumer query) {
+        for (int i = 0; i < WARMUP; i++) {
+            query.accept(i);
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            query.accept(i);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        System.out.printf("%s: %.1f us/query, %d bytes allocated/query%n",
+                name, seconds * 1e6 / ITERATIONS, allocated / ITERATIONS);
+    }
+}
@@ -0,0 +1,99 @@
+package com.promoticon.account;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.rate-limit.username-search.capacity=5")
+@AutoConfigureMockMvc
+class UsernameControllerTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired AccountService accountService;
+    @Autowired AccountRepository accountRepository;
+    @Autowired UsernameIndex usernameIndex;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void beforeEach() {
+        SignUpForm signUpForm = new SignUpForm();
+        signUpForm.setUsername("mea");
+        signUpForm.setEmail("mea@gmail.com");
+        signUpForm.setPassword("12341234");
+        accountService.processNewAccount(signUpForm);
+    }
+
+    @AfterEach
+    void afterEach() {
+        accountRepository.deleteAll();
+    }
+
+    @DisplayName("유저네임 자동 완성과 사용 가능 여부")
+    @Test
+    void searchUsernames() throws Exception {
+        mockMvc.perform(get("/usernames").param("prefix", "mea"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.available").value(false))
+                .andExpect(jsonPath("$.usernames", hasItem("mea")));
+    }
+
+    @DisplayName("세 글자보다 짧은 접두어에는 유저네임을 알려 주지 않는다")
+    @Test
+    void shortPrefix() throws Exception {
+        mockMvc.perform(get("/usernames").param("prefix", "me"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.available").value(false))
+                .andExpect(jsonPath("$.usernames", empty()));
+    }
+
+    @DisplayName("클라이언트 IP 마다 자동 완성 호출 수를 제한한다")
+    @Test
+    void rateLimited() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/usernames").param("prefix", "mea").with(remoteAddr("10.0.0.1")))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(get("/usernames").param("prefix", "mea").with(remoteAddr("10.0.0.1")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        mockMvc.perform(get("/usernames").param("prefix", "mea").with(remoteAddr("10.0.0.2")))
+                .andExpect(status().isOk());
+    }
+
+    @DisplayName("인덱스를 거치지 않고 바뀐 유저네임은 다시 만들 때 반영된다")
+    @Test
+    void rebuild() {
+        jdbcTemplate.update("update account set username = 'hwan' where username = 'mea'");
+        assertTrue(usernameIndex.contains("mea"));
+
+        usernameIndex.rebuild();
+
+        assertFalse(usernameIndex.contains("mea"));
+        assertTrue(usernameIndex.contains("hwan"));
+    }
+
+    private static RequestPostProcessor remoteAddr(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
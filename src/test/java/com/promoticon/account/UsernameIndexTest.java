@@ -0,0 +1,34 @@
+package com.promoticon.account;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UsernameIndexTest {
+
+    UsernameIndex index = new UsernameIndex(null);
+
+    @DisplayName("접두어로 정렬된 유저네임을 찾는다")
+    @Test
+    void findByPrefix() {
+        List.of("mea", "meat", "me_2", "mo", "abc", "메아").forEach(index::add);
+
+        assertEquals(List.of("me_2", "mea", "meat"), index.findByPrefix("me", 10));
+        assertEquals(List.of("me_2"), index.findByPrefix("me", 1));
+        assertEquals(List.of("메아"), index.findByPrefix("메", 10));
+        assertTrue(index.findByPrefix("x", 10).isEmpty());
+    }
+
+    @DisplayName("유저네임을 바꾸면 예전 이름은 다시 쓸 수 있다")
+    @Test
+    void rename() {
+        index.add("mea");
+        index.rename("mea", "hwan");
+
+        assertFalse(index.contains("mea"));
+        assertTrue(index.contains("hwan"));
+    }
+}
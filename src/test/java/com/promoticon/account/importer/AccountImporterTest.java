@@ -0,0 +1,187 @@
+package com.promoticon.account.importer;
+
+import com.promoticon.account.AccountRepository;
+import com.promoticon.account.MemberCounter;
+import com.promoticon.account.UsernameIndex;
+import com.promoticon.domain.Account;
+import com.promoticon.domain.OutboxMail;
+import com.promoticon.mail.OutboxMailRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"app.import.chunk-size=2", "app.mail-outbox.poll-interval-ms=3600000"})
+class AccountImporterTest {
+
+    @Autowired AccountImporter accountImporter;
+    @Autowired AccountImportProperties properties;
+    @Autowired AccountRepository accountRepository;
+    @Autowired OutboxMailRepository outboxMailRepository;
+    @Autowired UsernameIndex usernameIndex;
+    @Autowired MemberCounter memberCounter;
+    @Autowired PasswordEncoder passwordEncoder;
+    @Autowired MeterRegistry meterRegistry;
+
+    @TempDir Path dir;
+
+    @AfterEach
+    void afterEach() {
+        properties.setSendConfirmation(false);
+        properties.setMarkVerified(false);
+        outboxMailRepository.deleteAll();
+        accountRepository.deleteAll();
+        memberCounter.reconcile();
+    }
+
+    @DisplayName("CSV 가져오기 - 잘못된 행과 중복은 건너뛴다")
+    @Test
+    void importCsv() throws IOException {
+        accountRepository.save(Account.builder().email("taken@email.com").username("taken").password("x").build());
+        String hash = passwordEncoder.encode("12345678");
+        Path file = write("accounts.csv",
+                "email,username,password",
+                "kim@email.com,kim,12345678",
+                "\"lee@email.com\",lee,\"1234,5678\"",
+                "bad-email,park,12345678",
+                "kim2@email.com,kim,12345678",
+                "taken@email.com,choi,12345678",
+                "hash@email.com,hash," + hash);
+
+        ImportResult result = accountImporter.importFile(file);
+
+        assertEquals(3, result.getImported());
+        assertEquals(2, result.getDuplicated());
+        assertEquals(1, result.getInvalid());
+        Account lee = accountRepository.findByUsername("lee");
+        assertTrue(passwordEncoder.matches("1234,5678", lee.getPassword()));
+        assertFalse(lee.isEmailVerified());
+        assertTrue(lee.isEmoticonCreatedByWeb());
+        assertEquals(hash, accountRepository.findByUsername("hash").getPassword());
+        assertTrue(usernameIndex.contains("kim"));
+        assertFalse(Files.exists(AccountImporter.checkpointOf(file)));
+        assertEquals(0, outboxMailRepository.count());
+    }
+
+    @DisplayName("{noop} 패스워드는 받지 않고, 등록되지 않은 {id} 로 시작하는 패스워드는 평문으로 보고 해싱한다")
+    @Test
+    void onlyRegisteredHashesAreKept() throws IOException {
+        Path file = write("accounts.csv",
+                "email,username,password",
+                "noop@email.com,noop,{noop}12345678",
+                "brace@email.com,brace,{ab}cdefgh");
+
+        ImportResult result = accountImporter.importFile(file);
+
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getInvalid());
+        assertNull(accountRepository.findByUsername("noop"));
+        String password = accountRepository.findByUsername("brace").getPassword();
+        assertTrue(password.startsWith("{bcrypt}"));
+        assertTrue(passwordEncoder.matches("{ab}cdefgh", password));
+    }
+
+    @DisplayName("가져오기 해싱은 로그인이 쓰는 해싱 풀을 거치지 않는다")
+    @Test
+    void hashingDoesNotUseLoginPool() throws IOException {
+        Path file = write("accounts.csv",
+                "email,username,password",
+                "kim@email.com,kim,12345678",
+                "lee@email.com,lee,12345678");
+        double encoded = meterRegistry.get("password.hashing").tag("operation", "encode").timer().count();
+
+        accountImporter.importFile(file);
+
+        assertEquals(encoded, meterRegistry.get("password.hashing").tag("operation", "encode").timer().count());
+    }
+
+    @DisplayName("건너뛴 행의 이메일과 유저네임은 뒤의 행을 막지 않는다")
+    @Test
+    void rejectedRowDoesNotBlockLaterRows() throws IOException {
+        accountRepository.save(Account.builder().email("taken@email.com").username("taken").password("x").build());
+        Path file = write("accounts.csv",
+                "email,username,password",
+                "kim@email.com,taken,12345678",
+                "kim@email.com,kim,12345678");
+
+        ImportResult result = accountImporter.importFile(file);
+
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getDuplicated());
+        assertEquals("kim@email.com", accountRepository.findByUsername("kim").getEmail());
+    }
+
+    @DisplayName("인증된 것으로 가져온 계정은 회원 수에 더한다")
+    @Test
+    void markVerifiedCountsMembers() throws IOException {
+        properties.setMarkVerified(true);
+        long before = memberCounter.get();
+        Path file = write("accounts.csv",
+                "email,username,password",
+                "kim@email.com,kim,12345678",
+                "lee@email.com,lee,12345678",
+                "park@email.com,park,12345678");
+
+        accountImporter.importFile(file);
+
+        assertEquals(before + 3, memberCounter.get());
+    }
+
+    @DisplayName("JSON Lines 가져오기 - 인증 메일은 아웃박스에 넣는다")
+    @Test
+    void importJsonLinesWithConfirmation() throws IOException {
+        properties.setSendConfirmation(true);
+        Path file = write("accounts.jsonl",
+                "{\"email\":\"kim@email.com\",\"username\":\"kim\",\"password\":\"12345678\"}",
+                "",
+                "{\"email\":\"lee@email.com\",\"username\":\"lee\",\"password\":\"12345678\"}",
+                "{not json");
+
+        ImportResult result = accountImporter.importFile(file);
+
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getInvalid());
+        List<String> recipients = outboxMailRepository.findAll().stream()
+                .map(OutboxMail::getRecipient)
+                .sorted()
+                .collect(Collectors.toList());
+        assertEquals(List.of("kim@email.com", "lee@email.com"), recipients);
+    }
+
+    @DisplayName("체크포인트가 있으면 그다음 줄부터 이어서 가져온다")
+    @Test
+    void resumeFromCheckpoint() throws IOException {
+        Path file = write("accounts.csv",
+                "email,username,password",
+                "kim@email.com,kim,12345678",
+                "lee@email.com,lee,12345678",
+                "park@email.com,park,12345678");
+        Files.writeString(AccountImporter.checkpointOf(file), "3");
+
+        ImportResult result = accountImporter.importFile(file);
+
+        assertEquals(2, result.getSkipped());
+        assertEquals(1, result.getImported());
+        assertNull(accountRepository.findByUsername("kim"));
+        assertNotNull(accountRepository.findByUsername("park"));
+    }
+
+    private Path write(String name, String... lines) throws IOException {
+        Path file = dir.resolve(name);
+        Files.write(file, List.of(lines), StandardCharsets.UTF_8);
+        return file;
+    }
+}
@@ -0,0 +1,58 @@
+package com.promoticon.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AssetsTest {
+
+    @Autowired MockMvc mockMvc;
+
+    @Autowired ResourceUrlProvider resourceUrlProvider;
+
+    @DisplayName("에셋 주소에는 내용 해시가 붙는다")
+    @Test
+    void versionedUrl() {
+        String url = resourceUrlProvider.getForLookupPath("/assets/test.css");
+
+        assertNotNull(url);
+        assertTrue(url.matches("/assets/test-[0-9a-f]{32}\\.css"), url);
+    }
+
+    @DisplayName("해시가 붙은 주소는 미리 압축한 파일을 바꾸지 않는 캐시로 보낸다")
+    @Test
+    void precompressedAndImmutable() throws Exception {
+        String url = resourceUrlProvider.getForLookupPath("/assets/test.css");
+
+        mockMvc.perform(get(url).header(HttpHeaders.ACCEPT_ENCODING, "br, gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT_ENCODING)))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"));
+
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().string(containsString(".test")));
+    }
+
+    @DisplayName("해시 없이 요청한 주소는 잠깐만 캐시한다")
+    @Test
+    void unversionedIsShortLived() throws Exception {
+        mockMvc.perform(get("/assets/test.css"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=600, public"));
+    }
+}
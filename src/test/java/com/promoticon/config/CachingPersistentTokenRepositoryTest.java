@@ -0,0 +1,88 @@
+package com.promoticon.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.web.authentication.rememberme.CookieTheftException;
+import org.springframework.security.web.authentication.rememberme.PersistentRememberMeToken;
+import org.springframework.security.web.authentication.rememberme.PersistentTokenBasedRememberMeServices;
+
+import javax.servlet.http.Cookie;
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CachingPersistentTokenRepositoryTest {
+
+    @Autowired CachingPersistentTokenRepository tokenRepository;
+
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @Autowired DataSource dataSource;
+
+    @AfterEach
+    void afterEach() {
+        tokenRepository.removeUserTokens("mea");
+    }
+
+    @DisplayName("토큰 갱신은 DB 에 쓰고 캐시에도 반영한다")
+    @Test
+    void updateTokenIsWrittenThrough() {
+        tokenRepository.createNewToken(new PersistentRememberMeToken("mea", "series-1", "token-1", new Date()));
+
+        tokenRepository.updateToken("series-1", "token-2", new Date());
+
+        assertEquals("token-2", tokenRepository.getTokenForSeries("series-1").getTokenValue());
+        assertEquals("token-2", storedToken("series-1"));
+    }
+
+    @DisplayName("사용자 토큰 삭제는 캐시에서도 지운다")
+    @Test
+    void removeUserTokens() {
+        tokenRepository.createNewToken(new PersistentRememberMeToken("mea", "series-2", "token-1", new Date()));
+        tokenRepository.updateToken("series-2", "token-2", new Date());
+
+        tokenRepository.removeUserTokens("mea");
+
+        assertNull(tokenRepository.getTokenForSeries("series-2"));
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from persistent_logins where series = ?", Integer.class, "series-2"));
+    }
+
+    @DisplayName("재시작한 인스턴스도 마지막으로 갱신한 토큰을 알고, 이전 토큰을 가진 쿠키는 도용으로 처리한다")
+    @Test
+    void restartKeepsRotation() {
+        tokenRepository.createNewToken(new PersistentRememberMeToken("mea", "series-3", "token-1", new Date()));
+        tokenRepository.updateToken("series-3", "token-2", new Date());
+
+        // 캐시가 빈 채 새로 뜬 인스턴스는 DB 에서 읽는다.
+        CachingPersistentTokenRepository restarted = new CachingPersistentTokenRepository(dataSource, 100);
+        PersistentTokenBasedRememberMeServices rememberMeServices = new PersistentTokenBasedRememberMeServices("key",
+                username -> User.withUsername(username).password("password").roles("USER").build(), restarted);
+        assertNotNull(rememberMeServices.autoLogin(cookie("series-3:token-2"), new MockHttpServletResponse()));
+
+        assertThrows(CookieTheftException.class,
+                () -> rememberMeServices.autoLogin(cookie("series-3:token-1"), new MockHttpServletResponse()));
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from persistent_logins where username = ?", Integer.class, "mea"));
+    }
+
+    private static MockHttpServletRequest cookie(String value) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie("remember-me", Base64.getEncoder().withoutPadding()
+                .encodeToString(value.getBytes(StandardCharsets.UTF_8))));
+        return request;
+    }
+
+    private String storedToken(String series) {
+        return jdbcTemplate.queryForObject("select token from persistent_logins where series = ?", String.class, series);
+    }
+}
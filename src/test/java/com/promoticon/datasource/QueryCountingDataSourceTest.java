@@ -0,0 +1,51 @@
+package com.promoticon.datasource;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryCountingDataSourceTest {
+
+    JdbcTemplate jdbcTemplate = new JdbcTemplate(new QueryCountingDataSource(DataSourceBuilder.create()
+            .url("jdbc:h2:mem:query-counting;DB_CLOSE_DELAY=-1").username("sa").build()));
+
+    @DisplayName("범위 안에서 실행한 문장 수와 같은 SQL 반복을 센다")
+    @Test
+    void countStatements() {
+        jdbcTemplate.execute("create table if not exists item (id bigint primary key)");
+        jdbcTemplate.update("delete from item");
+
+        try (QueryStats stats = QueryStats.start()) {
+            jdbcTemplate.batchUpdate("insert into item (id) values (?)", List.of(new Object[]{1L}, new Object[]{2L}));
+            for (long id = 1; id <= 3; id++) {
+                jdbcTemplate.queryForList("select id from item where id = ?", Long.class, id);
+            }
+
+            assertEquals(4, stats.getStatements());
+            assertEquals(2, stats.getDuplicates());
+            assertEquals(Map.of("select id from item where id = ?", 3), stats.getRepeated(2));
+        }
+    }
+
+    @DisplayName("범위 밖의 문장은 세지 않고, 안쪽 범위의 문장은 바깥 범위에도 더한다")
+    @Test
+    void nestedScopes() {
+        jdbcTemplate.queryForObject("select 1", Integer.class);
+
+        try (QueryStats outer = QueryStats.start()) {
+            jdbcTemplate.queryForObject("select 1", Integer.class);
+            try (QueryStats inner = QueryStats.start()) {
+                jdbcTemplate.queryForObject("select 2", Integer.class);
+                assertEquals(1, inner.getStatements());
+            }
+            assertEquals(2, outer.getStatements());
+        }
+        assertFalse(QueryStats.isActive());
+    }
+}
@@ -0,0 +1,25 @@
+package com.promoticon.datasource;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"app.query-stats.enabled=false", "app.mail-outbox.poll-interval-ms=3600000"})
+class QueryStatsDisabledTest {
+
+    @Autowired ApplicationContext applicationContext;
+    @Autowired DataSource dataSource;
+
+    @DisplayName("끄면 DataSource 를 감싸지 않고 필터도 등록하지 않는다")
+    @Test
+    void disabled() {
+        assertFalse(dataSource instanceof QueryCountingDataSource);
+        assertTrue(applicationContext.getBeansOfType(QueryStatsFilter.class).isEmpty());
+    }
+}
@@ -0,0 +1,101 @@
+package com.promoticon.datasource;
+
+import com.promoticon.WithAccount;
+import com.promoticon.account.AccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 같은 H2 메모리 DB 를 primary 와 replica 두 풀로 열어서 라우팅만 확인한다.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.url=jdbc:h2:mem:routing;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.username=sa",
+        "app.datasource.replica.lag-check-interval-ms=3600000",
+        "app.mail-outbox.poll-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+class ReadWriteRoutingDataSourceTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired AccountRepository accountRepository;
+    @Autowired ReplicaLagMonitor replicaLagMonitor;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired MeterRegistry meterRegistry;
+    @Autowired EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void beforeEach() {
+        replicaLagMonitor.check();
+        replicaLagMonitor.check();
+    }
+
+    @AfterEach
+    void afterEach() {
+        accountRepository.deleteAll();
+    }
+
+    @DisplayName("읽기 전용 트랜잭션은 replica 로, 쓰기 트랜잭션은 primary 로 간다")
+    @Test
+    void routeByReadOnly() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        double replica = routed("replica");
+        readOnly.executeWithoutResult(status -> accountRepository.existsByUsername("nobody"));
+        assertEquals(replica + 1, routed("replica"));
+
+        double primary = routed("primary");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> accountRepository.existsByUsername("nobody"));
+        assertEquals(primary + 1, routed("primary"));
+        assertEquals(replica + 1, routed("replica"));
+    }
+
+    @WithAccount("mea")
+    @DisplayName("설정을 바꾼 세션의 다음 읽기는 primary 로 간다")
+    @Test
+    void readYourWrites() throws Exception {
+        MockHttpSession session = new MockHttpSession();
+        mockMvc.perform(post("/settings/profile")
+                        .param("bio", "바로 보여야 하는 소개")
+                        .session(session)
+                        .with(csrf()))
+                .andExpect(status().is3xxRedirection());
+        assertNotNull(session.getAttribute(ReadYourWritesFilter.PRIMARY_UNTIL));
+
+        // 프로필은 2차 캐시에서 읽을 수 있으므로 비워서 DB 까지 가게 한다.
+        entityManagerFactory.getCache().evictAll();
+        double replica = routed("replica");
+        mockMvc.perform(get("/profile/mea").session(session))
+                .andExpect(status().isOk());
+        assertEquals(replica, routed("replica"));
+
+        entityManagerFactory.getCache().evictAll();
+        mockMvc.perform(get("/profile/mea").session(new MockHttpSession()))
+                .andExpect(status().isOk());
+        assertTrue(routed("replica") > replica);
+    }
+
+    private double routed(String target) {
+        return meterRegistry.get("datasource.routing").tag("target", target).counter().count();
+    }
+}
@@ -0,0 +1,130 @@
+package com.promoticon.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaLagMonitorTest {
+
+    AtomicLong now = new AtomicLong(1_000);
+    JdbcTemplate primary;
+    JdbcTemplate replica;
+    ReplicaLagMonitor monitor;
+
+    @BeforeEach
+    void beforeEach() {
+        DataSource primaryDataSource = h2("lag-primary");
+        DataSource replicaDataSource = h2("lag-replica");
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+        for (JdbcTemplate jdbcTemplate : new JdbcTemplate[]{primary, replica}) {
+            jdbcTemplate.execute("drop table if exists replica_heartbeat");
+            jdbcTemplate.execute("create table replica_heartbeat (id bigint primary key, beat_at bigint not null)");
+        }
+        monitor = new ReplicaLagMonitor(primaryDataSource, replicaDataSource, Duration.ofSeconds(5),
+                Duration.ofSeconds(1), new SimpleMeterRegistry(), clock());
+    }
+
+    @DisplayName("처음 재기 전에는 replica 를 쓰지 않는다")
+    @Test
+    void unknownBeforeFirstCheck() {
+        assertFalse(monitor.isReplicaUsable());
+        monitor.check();
+        assertFalse(monitor.isReplicaUsable());
+        assertEquals(1_000L, primary.queryForObject("select beat_at from replica_heartbeat", Long.class));
+    }
+
+    @DisplayName("마지막 heartbeat 가 복제되면 지연이 없고, 밀리면 최대 지연을 넘을 때 primary 로 돌린다")
+    @Test
+    void lag() {
+        monitor.check();
+        replicate();
+        now.set(2_000);
+        monitor.check();
+        assertTrue(monitor.isReplicaUsable());
+
+        now.set(4_000);
+        monitor.check();
+        assertTrue(monitor.isReplicaUsable());
+
+        now.set(10_000);
+        monitor.check();
+        assertFalse(monitor.isReplicaUsable());
+
+        replicate();
+        now.set(11_000);
+        monitor.check();
+        assertTrue(monitor.isReplicaUsable());
+    }
+
+    @DisplayName("검사가 멈춰서 마지막으로 잰 값이 오래되면 primary 로 돌린다")
+    @Test
+    void staleMeasurement() {
+        monitor.check();
+        replicate();
+        now.set(2_000);
+        monitor.check();
+        assertTrue(monitor.isReplicaUsable());
+
+        now.set(4_000);
+        assertTrue(monitor.isReplicaUsable());
+        now.set(4_001);
+        assertFalse(monitor.isReplicaUsable());
+    }
+
+    @DisplayName("replica 를 읽지 못하면 primary 로 돌린다")
+    @Test
+    void replicaDown() {
+        monitor.check();
+        replicate();
+        now.set(2_000);
+        monitor.check();
+        assertTrue(monitor.isReplicaUsable());
+
+        replica.execute("drop table replica_heartbeat");
+        now.set(3_000);
+        monitor.check();
+        assertFalse(monitor.isReplicaUsable());
+    }
+
+    private void replicate() {
+        Long beatAt = primary.queryForObject("select beat_at from replica_heartbeat where id = 1", Long.class);
+        replica.update("merge into replica_heartbeat (id, beat_at) key (id) values (1, ?)", beatAt);
+    }
+
+    private Clock clock() {
+        return new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return Instant.ofEpochMilli(now.get());
+            }
+        };
+    }
+
+    private static DataSource h2(String name) {
+        return DataSourceBuilder.create().url("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1").username("sa").build();
+    }
+}
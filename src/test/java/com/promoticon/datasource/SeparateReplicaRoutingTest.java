@@ -0,0 +1,121 @@
+package com.promoticon.datasource;
+
+import com.promoticon.WithAccount;
+import com.promoticon.account.AccountRepository;
+import com.promoticon.account.AccountService;
+import com.promoticon.account.UserAccountCache;
+import com.promoticon.domain.Account;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * primary 와 replica 를 서로 다른 H2 메모리 DB 로 열어서 쓰기가 어느 쪽에 닿았는지 확인한다.
+ * replica 에는 테스트마다 primary 의 스키마와 데이터를 복사해 둔다.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:separate-primary;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.url=jdbc:h2:mem:separate-replica;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.username=sa",
+        "app.datasource.replica.lag-check-interval-ms=3600000",
+        "app.mail-outbox.poll-interval-ms=3600000"
+})
+@AutoConfigureMockMvc
+class SeparateReplicaRoutingTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired AccountRepository accountRepository;
+    @Autowired AccountService accountService;
+    @Autowired UserAccountCache userAccountCache;
+    @Autowired ReplicaLagMonitor replicaLagMonitor;
+    @Autowired HikariDataSource primaryDataSource;
+    @Autowired HikariDataSource replicaDataSource;
+    @Autowired EntityManagerFactory entityManagerFactory;
+    @Autowired PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void beforeEach() {
+        replicaLagMonitor.check();
+        copyPrimaryToReplica();
+        replicaLagMonitor.check();
+        assertTrue(replicaLagMonitor.isReplicaUsable());
+
+        // 2차 캐시에 남은 계정을 지워야 @CurrentUser 가 replica 에서 읽는다.
+        entityManagerFactory.getCache().evictAll();
+        // @WithAccount 가 가입시킨 쓰기 때문에 테스트 스레드의 요청이 primary 에 묶여 있으므로 풀어 준다.
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @AfterEach
+    void afterEach() {
+        accountRepository.deleteAll();
+    }
+
+    @WithAccount("mea")
+    @DisplayName("replica 에서 읽은 요청 안의 쓰기 트랜잭션은 primary 에 쓴다")
+    @Test
+    void writeAfterReplicaRead() throws Exception {
+        mockMvc.perform(post("/settings/profile")
+                        .param("bio", "primary 에 써야 하는 소개")
+                        .with(csrf()))
+                .andExpect(status().is3xxRedirection());
+
+        assertEquals("primary 에 써야 하는 소개", bio(primaryDataSource));
+        assertNull(bio(replicaDataSource));
+    }
+
+    @WithAccount("mea")
+    @DisplayName("replica 에서 읽은 옛 값은 2차 캐시에 올리지 않는다")
+    @Test
+    void replicaReadsDoNotFillCache() {
+        new JdbcTemplate(primaryDataSource).update("update account set username = ? where username = ?", "renamed", "mea");
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Account stale = readOnly.execute(status -> accountRepository.findByUsername("mea"));
+        assertEquals("mea", stale.getUsername());
+        assertFalse(entityManagerFactory.getCache().contains(Account.class, stale.getId()));
+
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        assertNull(readWrite.execute(status -> accountRepository.findByUsername("mea")));
+        assertEquals(stale.getId(), readWrite.execute(status -> accountRepository.findByUsername("renamed")).getId());
+    }
+
+    @WithAccount("mea")
+    @DisplayName("로그인할 때는 replica 가 뒤처져도 primary 의 패스워드를 읽는다")
+    @Test
+    void loginReadsPrimary() {
+        new JdbcTemplate(primaryDataSource).update("update account set password = ? where username = ?", "new-hash", "mea");
+        entityManagerFactory.getCache().evictAll();
+        userAccountCache.evict(accountRepository.findByUsername("mea"));
+
+        assertEquals("new-hash", accountService.loadUserByUsername("mea").getPassword());
+    }
+
+    private void copyPrimaryToReplica() {
+        JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("drop all objects");
+        new JdbcTemplate(primaryDataSource).queryForList("script", String.class).forEach(replica::execute);
+    }
+
+    private static String bio(HikariDataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject("select bio from account where username = ?", String.class, "mea");
+    }
+}
@@ -0,0 +1,101 @@
+package com.promoticon.domain;
+
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 대량 가입 상황에서 계정 insert 처리량을 id 생성 방식과 JDBC 배치 설정별로 비교한다. {@code mvn test -Pbenchmark} 로 실행한다.
+ * H2 는 항상 돌리고, PostgreSQL 은 -Dbenchmark.postgres.url, -Dbenchmark.postgres.username, -Dbenchmark.postgres.password 를
+ * 주면 같이 돌린다. 대상 DB 의 테이블은 매번 새로 만들고 지운다.
+ */
+@Tag("benchmark")
+class AccountInsertBenchmark {
+
+    private static final int ACCOUNTS = 20_000;
+    private static final int CHUNK = 500;
+
+    @Test
+    void insertAccounts() {
+        run("h2", "jdbc:h2:mem:insert-benchmark;DB_CLOSE_DELAY=-1", "sa", "");
+
+        String postgresUrl = System.getProperty("benchmark.postgres.url");
+        if (postgresUrl != null) {
+            run("postgresql", postgresUrl, System.getProperty("benchmark.postgres.username"),
+                    System.getProperty("benchmark.postgres.password"));
+        }
+    }
+
+    private void run(String database, String url, String username, String password) {
+        measure(database, "sequence per insert, no batching", url, username, password, 1, 0);
+        measure(database, "pooled-lo 50, batch 50, ordered", url, username, password, 50, 50);
+    }
+
+    private void measure(String database, String name, String url, String username, String password,
+                         int allocationSize, int batchSize) {
+        EntityManagerFactory emf = entityManagerFactory(url, username, password, allocationSize, batchSize);
+        try {
+            insert(emf, 0, ACCOUNTS / 10);
+
+            long start = System.nanoTime();
+            insert(emf, ACCOUNTS / 10, ACCOUNTS);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            int inserted = ACCOUNTS - ACCOUNTS / 10;
+            System.out.printf("%s / %s: %.0f accounts/s (%d accounts in %.2fs)%n",
+                    database, name, inserted / seconds, inserted, seconds);
+        } finally {
+            emf.close();
+        }
+    }
+
+    private static void insert(EntityManagerFactory emf, int from, int to) {
+        for (int chunk = from; chunk < to; chunk += CHUNK) {
+            EntityManager em = emf.createEntityManager();
+            em.getTransaction().begin();
+            for (int i = chunk; i < Math.min(chunk + CHUNK, to); i++) {
+                em.persist(Account.builder()
+                        .username("user" + i)
+                        .email("user" + i + "@bench.com")
+                        .password("{noop}12345678")
+                        .emoticonCreatedByWeb(true)
+                        .feedbackUpdatedByWeb(true)
+                        .build());
+            }
+            em.getTransaction().commit();
+            em.close();
+        }
+    }
+
+    private static EntityManagerFactory entityManagerFactory(String url, String username, String password,
+                                                             int allocationSize, int batchSize) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url, username, password);
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(AvailableSettings.HBM2DDL_AUTO, "create-drop");
+        properties.put(AvailableSettings.PHYSICAL_NAMING_STRATEGY, CamelCaseToUnderscoresNamingStrategy.class.getName());
+        properties.put(AvailableSettings.IMPLICIT_NAMING_STRATEGY, SpringImplicitNamingStrategy.class.getName());
+        properties.put(AvailableSettings.STATEMENT_BATCH_SIZE, String.valueOf(batchSize));
+        properties.put(AvailableSettings.ORDER_INSERTS, String.valueOf(batchSize > 0));
+        properties.put(AvailableSettings.ORDER_UPDATES, String.valueOf(batchSize > 0));
+        properties.put(PooledLoSequenceGenerator.ALLOCATION_SIZE, String.valueOf(allocationSize));
+
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan(Account.class.getPackageName());
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setJpaPropertyMap(properties);
+        factory.setPersistenceUnitName("insert-benchmark-" + allocationSize + "-" + batchSize);
+        factory.afterPropertiesSet();
+        return factory.getObject();
+    }
+}
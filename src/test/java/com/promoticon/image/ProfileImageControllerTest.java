@@ -0,0 +1,62 @@
+package com.promoticon.image;
+
+import com.promoticon.domain.ProfileImage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProfileImageControllerTest {
+
+    @Autowired MockMvc mockMvc;
+
+    @Autowired ProfileImageService profileImageService;
+
+    @Autowired ProfileImageRepository profileImageRepository;
+
+    @AfterEach
+    void afterEach() {
+        profileImageRepository.deleteAll();
+    }
+
+    @DisplayName("프로필 이미지 조회")
+    @Test
+    void profileImage() throws Exception {
+        byte[] data = {1, 2, 3, 4};
+        ProfileImage profileImage = profileImageService.save(data, "image/png");
+
+        mockMvc.perform(get(ProfileImageController.PROFILE_IMAGE_URL + profileImage.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("image/png"))
+                .andExpect(content().bytes(data))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + profileImage.getEtag() + "\""))
+                .andExpect(header().exists(HttpHeaders.CACHE_CONTROL));
+    }
+
+    @DisplayName("프로필 이미지 조회: ETag 일치")
+    @Test
+    void profileImageNotModified() throws Exception {
+        ProfileImage profileImage = profileImageService.save(new byte[]{1, 2, 3, 4}, "image/png");
+
+        mockMvc.perform(get(ProfileImageController.PROFILE_IMAGE_URL + profileImage.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"" + profileImage.getEtag() + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @DisplayName("프로필 이미지 조회: 없는 이미지")
+    @Test
+    void profileImageNotFound() throws Exception {
+        mockMvc.perform(get(ProfileImageController.PROFILE_IMAGE_URL + "987654321"))
+                .andExpect(status().isNotFound());
+    }
+}
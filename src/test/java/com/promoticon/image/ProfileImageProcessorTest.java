@@ -0,0 +1,52 @@
+package com.promoticon.image;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProfileImageProcessorTest {
+
+    ThreadPoolTaskExecutor executor;
+    ProfileImageProcessor processor;
+
+    @BeforeEach
+    void beforeEach() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(0);
+        executor.initialize();
+        processor = new ProfileImageProcessor(executor, new ProfileImageTranscoder(), null);
+    }
+
+    @AfterEach
+    void afterEach() {
+        executor.shutdown();
+    }
+
+    @DisplayName("풀에 자리가 없으면 버리지 않고 요청을 거절하며, 트랜잭션이 되돌려지면 자리를 돌려준다")
+    @Test
+    void rejectWhenSaturated() {
+        ProfileImageUploadedEvent event = new ProfileImageUploadedEvent(1L, "not a data url");
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            processor.handleProfileImageUploadedEvent(event);
+            assertThrows(ProfileImageRejectedException.class, () -> processor.handleProfileImageUploadedEvent(event));
+
+            TransactionSynchronizationUtils.invokeAfterCompletion(TransactionSynchronizationManager.getSynchronizations(),
+                    TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertDoesNotThrow(() -> processor.handleProfileImageUploadedEvent(event));
+    }
+}
@@ -0,0 +1,43 @@
+package com.promoticon.image;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * 큰 업로드를 변환하는 처리량을 측정한다. {@code mvn test -Pbenchmark} 로 실행한다.
+ */
+@Tag("benchmark")
+class ProfileImageTranscoderBenchmark {
+
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 20;
+
+    ProfileImageTranscoder transcoder = new ProfileImageTranscoder();
+
+    @Test
+    void transcodeLargeUploads() throws IOException {
+        for (int side : new int[]{500, 2000, 4000}) {
+            byte[] upload = ProfileImageTranscoderTest.png(side, side);
+            for (int i = 0; i < WARMUP; i++) {
+                transcodeBothSizes(upload);
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                transcodeBothSizes(upload);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("%dx%d png (%d KB): %.1f uploads/s, %.1f ms/upload%n",
+                    side, side, upload.length / 1024, ITERATIONS / seconds, seconds * 1000 / ITERATIONS);
+        }
+    }
+
+    private void transcodeBothSizes(byte[] upload) throws IOException {
+        BufferedImage source = transcoder.decode(upload, ProfileImageProcessor.PROFILE_SIZE);
+        transcoder.transcode(source, ProfileImageProcessor.PROFILE_SIZE);
+        transcoder.transcode(source, ProfileImageProcessor.THUMBNAIL_SIZE);
+    }
+}
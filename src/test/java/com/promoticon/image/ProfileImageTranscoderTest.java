@@ -0,0 +1,55 @@
+package com.promoticon.image;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProfileImageTranscoderTest {
+
+    ProfileImageTranscoder transcoder = new ProfileImageTranscoder();
+
+    @DisplayName("프로필 이미지 변환: 정사각형 JPEG")
+    @Test
+    void transcode() throws IOException {
+        BufferedImage source = transcoder.decode(png(1200, 900), ProfileImageProcessor.PROFILE_SIZE);
+
+        for (int size : new int[]{ProfileImageProcessor.PROFILE_SIZE, ProfileImageProcessor.THUMBNAIL_SIZE}) {
+            BufferedImage result = ImageIO.read(new ByteArrayInputStream(transcoder.transcode(source, size)));
+            assertEquals(size, result.getWidth());
+            assertEquals(size, result.getHeight());
+        }
+    }
+
+    @DisplayName("프로필 이미지 변환: 큰 이미지는 디코딩할 때 줄인다")
+    @Test
+    void decodeWithSubsampling() throws IOException {
+        BufferedImage source = transcoder.decode(png(2000, 2000), ProfileImageProcessor.PROFILE_SIZE);
+        assertTrue(source.getWidth() < 2000);
+        assertTrue(source.getWidth() >= ProfileImageProcessor.PROFILE_SIZE * 2);
+    }
+
+    @DisplayName("프로필 이미지 변환: 이미지가 아닌 경우")
+    @Test
+    void decodeWithWrongInput() {
+        assertThrows(IOException.class, () -> transcoder.decode(new byte[]{1, 2, 3}, ProfileImageProcessor.PROFILE_SIZE));
+    }
+
+    static byte[] png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, 0xFF000000 | (x * 255 / width) << 16 | (y * 255 / height) << 8 | ((x ^ y) & 0xFF));
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
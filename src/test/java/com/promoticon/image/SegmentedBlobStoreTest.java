@@ -0,0 +1,109 @@
+package com.promoticon.image;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentedBlobStoreTest {
+
+    @TempDir Path directory;
+
+    BlobStoreProperties properties = new BlobStoreProperties();
+
+    SegmentedBlobStore blobStore;
+
+    @BeforeEach
+    void beforeEach() throws IOException {
+        properties.setDirectory(directory.toString());
+        properties.setSegmentSize(DataSize.ofBytes(1000));
+        properties.setGracePeriod(Duration.ZERO);
+        blobStore = reopen();
+    }
+
+    @AfterEach
+    void afterEach() throws IOException {
+        blobStore.close();
+    }
+
+    @DisplayName("블롭 저장과 조회")
+    @Test
+    void putAndGet() {
+        byte[] data = blob(7);
+        blobStore.put(key(7), data);
+        blobStore.put(key(7), data);
+
+        ByteBuffer buffer = blobStore.get(key(7)).orElseThrow();
+        assertTrue(buffer.isReadOnly());
+        assertArrayEquals(data, bytes(buffer));
+        assertTrue(blobStore.get(key(8)).isEmpty());
+    }
+
+    @DisplayName("다시 열면 세그먼트를 읽어 인덱스를 복구한다")
+    @Test
+    void reopenRecoversIndex() throws IOException {
+        for (int i = 0; i < 30; i++) {
+            blobStore.put(key(i), blob(i));
+        }
+
+        blobStore.close();
+        blobStore = reopen();
+
+        for (int i = 0; i < 30; i++) {
+            assertArrayEquals(blob(i), bytes(blobStore.get(key(i)).orElseThrow()));
+        }
+    }
+
+    @DisplayName("참조되지 않는 블롭은 정리하고 세그먼트를 압축한다")
+    @Test
+    void retainAll() throws Exception {
+        for (int i = 0; i < 30; i++) {
+            blobStore.put(key(i), blob(i));
+        }
+        Thread.sleep(10);
+
+        blobStore.retainAll(Set.of(key(0), key(10), key(20)));
+
+        for (int i = 0; i < 30; i++) {
+            assertEquals(i % 10 == 0, blobStore.contains(key(i)));
+        }
+
+        blobStore.close();
+        blobStore = reopen();
+        assertArrayEquals(blob(20), bytes(blobStore.get(key(20)).orElseThrow()));
+        assertTrue(directory.toFile().list().length < 5);
+    }
+
+    private SegmentedBlobStore reopen() throws IOException {
+        SegmentedBlobStore store = new SegmentedBlobStore(properties);
+        store.open();
+        return store;
+    }
+
+    private static String key(int i) {
+        return String.format("%064x", i);
+    }
+
+    private static byte[] blob(int i) {
+        byte[] data = new byte[100];
+        Arrays.fill(data, (byte) i);
+        return data;
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,230 @@
+package com.promoticon.mail;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.mail.MessagingException;
+import javax.mail.Session;
+import javax.mail.internet.MimeMessage;
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 테스트용으로 같은 프로세스 안에서 띄우는 SMTP 서버. 받은 메일을 MIME 으로 파싱해서 기록하고,
+ * 응답 지연, 실패, 초당 처리량 제한을 흉내 낼 수 있다. EHLO/HELO, MAIL, RCPT, DATA, RSET, NOOP, QUIT 만 지원한다.
+ */
+@Slf4j
+public class LocalSmtpServer implements Closeable {
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = Executors.newCachedThreadPool();
+    private final Session session = Session.getInstance(new Properties());
+
+    @Getter
+    private final Queue<Received> received = new ConcurrentLinkedQueue<>();
+    @Getter
+    private final AtomicInteger failed = new AtomicInteger();
+    @Getter
+    private final AtomicInteger throttled = new AtomicInteger();
+
+    /** DATA 를 받은 뒤 응답하기까지 기다리는 시간 */
+    private volatile long latencyMillis;
+    /** DATA 를 일시적 오류(451)로 거절하는 비율 */
+    private volatile double failureRate;
+    /** 초당 받아 주는 메일 수. 0 이면 제한하지 않는다. */
+    private volatile int maxMessagesPerSecond;
+
+    private long windowSecond;
+    private int windowCount;
+
+    public LocalSmtpServer() throws IOException {
+        serverSocket = new ServerSocket(0, 100, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::acceptLoop, "smtp-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public LocalSmtpServer simulate(long latencyMillis, double failureRate, int maxMessagesPerSecond) {
+        this.latencyMillis = latencyMillis;
+        this.failureRate = failureRate;
+        this.maxMessagesPerSecond = maxMessagesPerSecond;
+        return this;
+    }
+
+    public void reset() {
+        simulate(0, 0, 0);
+        received.clear();
+        failed.set(0);
+        throttled.set(0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        connections.shutdownNow();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connections.execute(() -> handle(socket));
+            } catch (SocketException e) {
+                return;
+            } catch (IOException e) {
+                log.warn("smtp accept failed", e);
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket;
+             InputStream in = new BufferedInputStream(socket.getInputStream());
+             Writer out = new OutputStreamWriter(new BufferedOutputStream(socket.getOutputStream()), StandardCharsets.US_ASCII)) {
+            reply(out, "220 localhost ESMTP");
+            List<String> recipients = new ArrayList<>();
+            String line;
+            while ((line = readLine(in)) != null) {
+                String command = line.length() < 4 ? line.toUpperCase() : line.substring(0, 4).toUpperCase();
+                switch (command) {
+                    case "EHLO":
+                        reply(out, "250-localhost\r\n250-8BITMIME\r\n250 OK");
+                        break;
+                    case "HELO":
+                    case "NOOP":
+                        reply(out, "250 OK");
+                        break;
+                    case "RSET":
+                        recipients.clear();
+                        reply(out, "250 OK");
+                        break;
+                    case "MAIL":
+                        recipients.clear();
+                        if (!admit()) {
+                            throttled.incrementAndGet();
+                            reply(out, "451 4.7.1 too many messages, slow down");
+                        } else {
+                            reply(out, "250 OK");
+                        }
+                        break;
+                    case "RCPT":
+                        recipients.add(line.substring(line.indexOf(':') + 1).trim().replaceAll("[<>]", ""));
+                        reply(out, "250 OK");
+                        break;
+                    case "DATA":
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        receive(in, out, recipients);
+                        break;
+                    case "QUIT":
+                        reply(out, "221 Bye");
+                        return;
+                    default:
+                        reply(out, "502 5.5.1 command not implemented");
+                }
+            }
+        } catch (IOException e) {
+            log.debug("smtp connection closed: {}", e.getMessage());
+        }
+    }
+
+    private void receive(InputStream in, Writer out, List<String> recipients) throws IOException {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        String line;
+        while ((line = readLine(in)) != null && !line.equals(".")) {
+            // 점으로 시작하는 줄은 보내는 쪽에서 점을 하나 더 붙인다(dot-stuffing).
+            data.write((line.startsWith(".") ? line.substring(1) : line).getBytes(StandardCharsets.ISO_8859_1));
+            data.write('\r');
+            data.write('\n');
+        }
+
+        sleep(latencyMillis);
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            failed.incrementAndGet();
+            reply(out, "451 4.3.0 simulated failure");
+            return;
+        }
+
+        try {
+            MimeMessage message = new MimeMessage(session, new ByteArrayInputStream(data.toByteArray()));
+            received.add(new Received(List.copyOf(recipients), message, System.nanoTime()));
+            reply(out, "250 OK");
+        } catch (MessagingException e) {
+            reply(out, "554 5.6.0 " + e.getMessage());
+        }
+    }
+
+    private synchronized boolean admit() {
+        int max = maxMessagesPerSecond;
+        if (max <= 0) {
+            return true;
+        }
+        long second = System.nanoTime() / 1_000_000_000L;
+        if (second != windowSecond) {
+            windowSecond = second;
+            windowCount = 0;
+        }
+        return ++windowCount <= max;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                byte[] bytes = line.toByteArray();
+                int length = bytes.length > 0 && bytes[bytes.length - 1] == '\r' ? bytes.length - 1 : bytes.length;
+                return new String(bytes, 0, length, StandardCharsets.ISO_8859_1);
+            }
+            line.write(b);
+        }
+        return null;
+    }
+
+    private static void reply(Writer out, String reply) throws IOException {
+        out.write(reply);
+        out.write("\r\n");
+        out.flush();
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Getter
+    public static class Received {
+
+        private final List<String> recipients;
+        private final MimeMessage message;
+        private final long receivedAtNanos;
+
+        Received(List<String> recipients, MimeMessage message, long receivedAtNanos) {
+            this.recipients = recipients;
+            this.message = message;
+            this.receivedAtNanos = receivedAtNanos;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.promoticon.mail;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import javax.mail.internet.MimeMessage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalSmtpServerTest {
+
+    LocalSmtpServer server;
+    JavaMailSenderImpl mailSender;
+
+    LocalSmtpServerTest() throws Exception {
+        server = new LocalSmtpServer();
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(server.getPort());
+    }
+
+    @AfterEach
+    void afterEach() throws Exception {
+        server.close();
+    }
+
+    @DisplayName("multipart 메일을 받아서 기록한다")
+    @Test
+    void receive() throws Exception {
+        mailSender.send(message("mea@gmail.com"));
+
+        LocalSmtpServer.Received received = server.getReceived().peek();
+        assertNotNull(received);
+        assertEquals("mea@gmail.com", received.getRecipients().get(0));
+        assertEquals("프로모티콘: 회원 가입 인증", received.getMessage().getSubject());
+        assertTrue(received.getMessage().isMimeType("multipart/*"));
+    }
+
+    @DisplayName("실패와 처리량 제한을 흉내 낸다")
+    @Test
+    void simulateFailures() throws Exception {
+        server.simulate(0, 1.0, 0);
+        assertThrows(MailSendException.class, () -> mailSender.send(message("fail@gmail.com")));
+        assertEquals(1, server.getFailed().get());
+
+        server.simulate(0, 0, 1);
+        assertThrows(MailSendException.class, () -> {
+            for (int i = 0; i < 3; i++) {
+                mailSender.send(message(i + "@gmail.com"));
+            }
+        });
+        assertTrue(server.getThrottled().get() >= 1);
+    }
+
+    private MimeMessage message(String to) throws Exception {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED, "UTF-8");
+        helper.setFrom("promoticon@localhost");
+        helper.setTo(to);
+        helper.setSubject("프로모티콘: 회원 가입 인증");
+        helper.setText("text", "<p>html</p>");
+        return message;
+    }
+}
@@ -0,0 +1,109 @@
+package com.promoticon.mail;
+
+import com.promoticon.domain.OutboxMail;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willThrow;
+
+@SpringBootTest(properties = "app.mail-outbox.poll-interval-ms=3600000")
+class MailDispatcherTest {
+
+    @Autowired MailOutbox mailOutbox;
+    @Autowired MailDispatcher mailDispatcher;
+    @Autowired OutboxMailRepository outboxMailRepository;
+    @Autowired MailOutboxProperties properties;
+    @MockBean JavaMailSender javaMailSender;
+
+    @AfterEach
+    void afterEach() {
+        outboxMailRepository.deleteAll();
+    }
+
+    @DisplayName("커밋된 메일을 가져가서 보내고 지운다")
+    @Test
+    void dispatch() throws Exception {
+        mailOutbox.enqueue(message("ok@email.com"));
+
+        mailDispatcher.dispatch();
+
+        await(() -> outboxMailRepository.count() == 0);
+        then(javaMailSender).should().send(any(SimpleMailMessage.class));
+    }
+
+    @DisplayName("보내지 못한 메일은 뒤로 미뤄서 다시 보낸다")
+    @Test
+    void retryWithBackoff() throws Exception {
+        willThrow(new MailSendException("smtp down")).given(javaMailSender).send(any(SimpleMailMessage.class));
+        mailOutbox.enqueue(message("fail@email.com"));
+
+        mailDispatcher.dispatch();
+
+        await(() -> outboxMailRepository.findAll().get(0).getAttempts() == 1);
+        OutboxMail mail = outboxMailRepository.findAll().get(0);
+        assertEquals(OutboxMail.Status.PENDING, mail.getStatus());
+        assertEquals("smtp down", mail.getLastError());
+        assertTrue(mail.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        assertNull(mail.getClaimToken());
+
+        // 미뤄 둔 메일은 다음 주기에 가져가지 않는다.
+        assertTrue(mailOutbox.claim(10).isEmpty());
+    }
+
+    @DisplayName("lease 가 지나 다시 가져간 메일은 먼저 가져간 쪽이 지우거나 실패로 적지 못한다")
+    @Test
+    void markOnlyWithCurrentClaim() {
+        mailOutbox.enqueue(message("slow@email.com"));
+        Duration lease = properties.getLease();
+        properties.setLease(Duration.ZERO);
+        OutboxMail first;
+        OutboxMail second;
+        try {
+            first = mailOutbox.claim(10).get(0);
+            second = mailOutbox.claim(10).get(0);
+        } finally {
+            properties.setLease(lease);
+        }
+        assertNotEquals(first.getClaimToken(), second.getClaimToken());
+
+        mailOutbox.markFailed(first.getId(), first.getClaimToken(), new MailSendException("timeout"));
+        mailOutbox.markSent(first.getId(), first.getClaimToken());
+
+        OutboxMail mail = outboxMailRepository.findAll().get(0);
+        assertEquals(0, mail.getAttempts());
+        assertEquals(second.getClaimToken(), mail.getClaimToken());
+
+        mailOutbox.markSent(second.getId(), second.getClaimToken());
+        assertEquals(0, outboxMailRepository.count());
+    }
+
+    private static SimpleMailMessage message(String to) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(to);
+        message.setSubject("subject");
+        message.setText("text");
+        return message;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "timed out");
+            Thread.sleep(20);
+        }
+    }
+}
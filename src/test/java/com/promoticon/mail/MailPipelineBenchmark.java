@@ -0,0 +1,181 @@
+package com.promoticon.mail;
+
+import com.promoticon.account.AccountRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import javax.mail.MessagingException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.IntFunction;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * 가입, 로그인 링크 요청부터 SMTP 서버가 메일을 받기까지의 처리량과 지연 시간을 측정한다.
+ * 실제 메일 서버 대신 {@link LocalSmtpServer} 로 보내며, {@code mvn test -Pbenchmark} 로 실행한다.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "app.mail-outbox.poll-interval-ms=50",
+        "app.mail-outbox.initial-backoff=200ms",
+        "app.mail-outbox.threads=8",
+        "app.rate-limit.client-ip.capacity=1000000"
+})
+@AutoConfigureMockMvc
+class MailPipelineBenchmark {
+
+    private static final int CLIENTS = 8;
+    private static final int ACCOUNTS = 200;
+    private static final String SIGN_UP_SUBJECT = "프로모티콘: 회원 가입 인증";
+    private static final String LOGIN_SUBJECT = "프로모티콘: 로그인 링크";
+
+    static final LocalSmtpServer SMTP = startSmtp();
+
+    @Autowired MockMvc mockMvc;
+    @Autowired AccountRepository accountRepository;
+    @Autowired OutboxMailRepository outboxMailRepository;
+
+    @TestConfiguration
+    static class SmtpConfig {
+
+        @Bean
+        @Primary
+        JavaMailSender smtpMailSender() {
+            JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+            mailSender.setHost("localhost");
+            mailSender.setPort(SMTP.getPort());
+            return mailSender;
+        }
+    }
+
+    @AfterAll
+    static void afterAll() throws IOException {
+        SMTP.close();
+    }
+
+    @Test
+    void mailPipeline() throws Exception {
+        scenario("baseline", 0, 0, 0);
+        scenario("smtp latency 50ms", 50, 0, 0);
+        scenario("10% transient failures", 0, 0.1, 0);
+        scenario("throttled to 100/s", 0, 0, 100);
+
+        accountRepository.deleteAll();
+        outboxMailRepository.deleteAll();
+    }
+
+    private void scenario(String name, long latencyMillis, double failureRate, int maxPerSecond) throws Exception {
+        SMTP.reset();
+        SMTP.simulate(latencyMillis, failureRate, maxPerSecond);
+        String prefix = "b" + Integer.toHexString(name.hashCode() & 0xFFFF) + "_";
+
+        report(name + " / sign-up", run(i -> post("/sign-up")
+                .param("username", prefix + i)
+                .param("email", prefix + i + "@bench.com")
+                .param("password", "12345678"), prefix, SIGN_UP_SUBJECT));
+
+        report(name + " / login link", run(i -> post("/email-login")
+                .param("email", prefix + i + "@bench.com"), prefix, LOGIN_SUBJECT));
+    }
+
+    private Result run(IntFunction<MockHttpServletRequestBuilder> request, String prefix, String subject) throws Exception {
+        Map<String, Long> requestedAt = new ConcurrentHashMap<>();
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            int index = i;
+            futures.add(clients.submit(() -> {
+                requestedAt.put(prefix + index + "@bench.com", System.nanoTime());
+                mockMvc.perform(request.apply(index).with(csrf()));
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        clients.shutdown();
+        long requestsDone = System.nanoTime();
+
+        Map<String, Long> receivedAt = new HashMap<>();
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+        while (receivedAt.size() < ACCOUNTS && System.nanoTime() < deadline) {
+            for (LocalSmtpServer.Received received : SMTP.getReceived()) {
+                String recipient = received.getRecipients().get(0);
+                if (requestedAt.containsKey(recipient) && subject.equals(subject(received))) {
+                    receivedAt.putIfAbsent(recipient, received.getReceivedAtNanos());
+                }
+            }
+            Thread.sleep(20);
+        }
+        long end = receivedAt.values().stream().mapToLong(Long::longValue).max().orElse(System.nanoTime());
+
+        long[] latencies = receivedAt.entrySet().stream()
+                .mapToLong(entry -> entry.getValue() - requestedAt.get(entry.getKey()))
+                .sorted()
+                .toArray();
+        return new Result(receivedAt.size(), (requestsDone - start) / 1e9, (end - start) / 1e9, latencies);
+    }
+
+    private static String subject(LocalSmtpServer.Received received) {
+        try {
+            return received.getMessage().getSubject();
+        } catch (MessagingException e) {
+            return null;
+        }
+    }
+
+    private static void report(String name, Result result) {
+        System.out.printf("%s: %d/%d delivered, requests %.2fs, delivery %.1f mails/s, latency p50 %.0f ms, p99 %.0f ms, max %.0f ms "
+                        + "(smtp failures %d, throttled %d)%n",
+                name, result.delivered, ACCOUNTS, result.requestSeconds, result.delivered / result.totalSeconds,
+                result.percentile(0.5), result.percentile(0.99), result.percentile(1.0),
+                SMTP.getFailed().get(), SMTP.getThrottled().get());
+    }
+
+    private static LocalSmtpServer startSmtp() {
+        try {
+            return new LocalSmtpServer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static class Result {
+
+        private final int delivered;
+        private final double requestSeconds;
+        private final double totalSeconds;
+        private final long[] latencies;
+
+        Result(int delivered, double requestSeconds, double totalSeconds, long[] latencies) {
+            this.delivered = delivered;
+            this.requestSeconds = requestSeconds;
+            this.totalSeconds = totalSeconds;
+            this.latencies = latencies;
+        }
+
+        double percentile(double p) {
+            if (latencies.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(p * latencies.length) - 1;
+            return latencies[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.promoticon.mail;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import javax.mail.Session;
+import javax.mail.internet.MimeMessage;
+import java.io.OutputStream;
+import java.util.Properties;
+import java.util.function.IntConsumer;
+
+/**
+ * 알림 메일 본문을 만드는 처리량을 측정한다. {@code mvn test -Pbenchmark} 로 실행한다.
+ */
+@Tag("benchmark")
+class MailTemplatesBenchmark {
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 200_000;
+
+    TemplateEngine templateEngine = MailTemplatesTest.templateEngine();
+    MailTemplates mailTemplates = new MailTemplates(templateEngine);
+    Session session = Session.getInstance(new Properties());
+
+    @Test
+    void renderMessages() {
+        measure("thymeleaf process", i -> {
+            Context context = new Context();
+            MailTemplatesTest.values("user" + i).forEach(context::setVariable);
+            templateEngine.process(MailTemplates.SIMPLE_LINK, context);
+        });
+        measure("compiled template", i -> mailTemplates.render(MailTemplates.SIMPLE_LINK, MailTemplatesTest.values("user" + i)));
+        measure("compiled template + multipart MIME", i -> {
+            try {
+                String html = mailTemplates.render(MailTemplates.SIMPLE_LINK, MailTemplatesTest.values("user" + i));
+                MimeMessage message = new MimeMessage(session);
+                MimeMessageHelper helper = new MimeMessageHelper(message, MimeMessageHelper.MULTIPART_MODE_MIXED_RELATED, "UTF-8");
+                helper.setTo("user" + i + "@email.com");
+                helper.setSubject("프로모티콘: 회원 가입 인증");
+                helper.setText("프로모티콘 서비스를 사용하려면 링크를 클릭하세요.", html);
+                message.writeTo(OutputStream.nullOutputStream());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private void measure(String name, IntConsumer render) {
+        for (int i = 0; i < WARMUP; i++) {
+            render.accept(i);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            render.accept(i);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%s: %.0f messages/s, %.2f us/message%n", name, ITERATIONS / seconds, seconds * 1e6 / ITERATIONS);
+    }
+}
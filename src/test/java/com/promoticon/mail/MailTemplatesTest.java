@@ -0,0 +1,59 @@
+package com.promoticon.mail;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MailTemplatesTest {
+
+    static TemplateEngine templateEngine() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+        return templateEngine;
+    }
+
+    static Map<String, String> values(String nickname) {
+        return Map.of(
+                "nickname", nickname,
+                "message", "프로모티콘 서비스를 사용하려면 링크를 클릭하세요.",
+                "link", "http://localhost:8080/check-email-token?token=abc.def&x=1",
+                "linkName", "이메일 인증하기");
+    }
+
+    @DisplayName("미리 렌더링한 템플릿은 Thymeleaf 로 매번 렌더링한 결과와 같다")
+    @Test
+    void sameAsThymeleaf() {
+        TemplateEngine templateEngine = templateEngine();
+        MailTemplates mailTemplates = new MailTemplates(templateEngine);
+        Map<String, String> values = values("<script>&\"");
+
+        Context context = new Context();
+        values.forEach(context::setVariable);
+        String expected = templateEngine.process(MailTemplates.SIMPLE_LINK, context);
+
+        String html = mailTemplates.render(MailTemplates.SIMPLE_LINK, values);
+        assertEquals(expected, html);
+        assertFalse(html.contains("<script>"));
+        assertTrue(html.contains("token=abc.def&amp;x=1"));
+    }
+
+    @DisplayName("없는 템플릿은 거절한다")
+    @Test
+    void unknownTemplate() {
+        MailTemplates mailTemplates = new MailTemplates(templateEngine());
+        assertThrows(IllegalArgumentException.class, () -> mailTemplates.render("mail/none", Map.of()));
+    }
+}
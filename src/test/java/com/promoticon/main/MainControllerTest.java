@@ -3,6 +3,8 @@ package com.promoticon.main;
 import com.promoticon.account.AccountRepository;
 import com.promoticon.account.AccountService;
 import com.promoticon.account.SignUpForm;
+import com.promoticon.account.UserAccountCache;
+import com.promoticon.domain.Account;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -12,6 +14,8 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.authenticated;
 import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.unauthenticated;
@@ -29,6 +33,8 @@ class MainControllerTest {
     AccountService accountService;
     @Autowired
     AccountRepository accountRepository;
+    @Autowired
+    UserAccountCache userAccountCache;
 
     @BeforeEach
     void beforeEach() {
@@ -70,6 +76,56 @@ class MainControllerTest {
                 .andExpect(authenticated().withUsername("mea"));
     }
 
+    @DisplayName("캐시된 인증 주체로 다시 로그인해도 패스워드 해시가 남아 있다")
+    @Test
+    void login_twice_from_cache() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/login")
+                            .param("username", "mea")
+                            .param("password", "12341234")
+                            .with(csrf()))
+                    .andExpect(authenticated().withUsername("mea"));
+        }
+        assertNotNull(accountService.loadUserByUsername("mea").getPassword());
+    }
+
+    @DisplayName("패스워드를 바꾸면 캐시된 계정 대신 새 패스워드로 로그인")
+    @Test
+    void login_after_password_change() throws Exception {
+        mockMvc.perform(post("/login")
+                        .param("username", "mea")
+                        .param("password", "12341234")
+                        .with(csrf()))
+                .andExpect(authenticated().withUsername("mea"));
+
+        accountService.updatePassword(accountRepository.findByUsername("mea"), "43214321");
+
+        mockMvc.perform(post("/login")
+                        .param("username", "mea")
+                        .param("password", "43214321")
+                        .with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/"))
+                .andExpect(authenticated().withUsername("mea"));
+    }
+
+    @DisplayName("약한 해시는 로그인할 때 다시 해싱")
+    @Test
+    void login_upgrades_password_hash() throws Exception {
+        Account mea = accountRepository.findByUsername("mea");
+        mea.setPassword("{noop}12341234");
+        accountRepository.save(mea);
+        userAccountCache.evict(mea);
+
+        mockMvc.perform(post("/login")
+                        .param("username", "mea")
+                        .param("password", "12341234")
+                        .with(csrf()))
+                .andExpect(authenticated().withUsername("mea"));
+
+        assertTrue(accountRepository.findByUsername("mea").getPassword().startsWith("{bcrypt}"));
+    }
+
     @DisplayName("로그인 실패")
     @Test
     void login_fail() throws Exception {
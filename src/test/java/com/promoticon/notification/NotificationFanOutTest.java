@@ -0,0 +1,68 @@
+package com.promoticon.notification;
+
+import com.promoticon.account.AccountRepository;
+import com.promoticon.domain.Account;
+import com.promoticon.domain.NotificationType;
+import com.promoticon.domain.OutboxMail;
+import com.promoticon.mail.OutboxMailRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"app.notification.page-size=2", "app.mail-outbox.poll-interval-ms=3600000"})
+class NotificationFanOutTest {
+
+    @Autowired NotificationFanOut notificationFanOut;
+    @Autowired AccountRepository accountRepository;
+    @Autowired OutboxMailRepository outboxMailRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void afterEach() {
+        jdbcTemplate.update("delete from notification");
+        outboxMailRepository.deleteAll();
+        accountRepository.deleteAll();
+    }
+
+    @DisplayName("알림 설정에 맞춰 웹 알림과 이메일 알림을 나눠 보낸다")
+    @Test
+    void fanOutByPreferences() {
+        Account webOnly = save("web", true, true, false);
+        Account emailOnly = save("email", true, false, true);
+        Account both = save("both", true, true, true);
+        save("none", true, false, false);
+        save("unverified", false, true, true);
+
+        notificationFanOut.fanOut(new NotificationEvent(NotificationType.EMOTICON_CREATED,
+                "새 이모티콘", "새 이모티콘이 등록되었습니다.", "/emoticon/1"));
+
+        List<Long> webRecipients = jdbcTemplate.queryForList(
+                "select account_id from notification where notification_type = 'EMOTICON_CREATED' order by account_id", Long.class);
+        assertEquals(List.of(webOnly.getId(), both.getId()), webRecipients);
+
+        List<String> emailRecipients = outboxMailRepository.findAll().stream()
+                .map(OutboxMail::getRecipient)
+                .sorted()
+                .collect(Collectors.toList());
+        assertEquals(List.of(both.getEmail(), emailOnly.getEmail()), emailRecipients);
+    }
+
+    private Account save(String username, boolean verified, boolean byWeb, boolean byEmail) {
+        return accountRepository.save(Account.builder()
+                .username(username)
+                .email(username + "@email.com")
+                .password("12345678")
+                .emailVerified(verified)
+                .emoticonCreatedByWeb(byWeb)
+                .emoticonCreatedByEmail(byEmail)
+                .build());
+    }
+}
@@ -0,0 +1,142 @@
+package com.promoticon.purge;
+
+import com.promoticon.account.AccountRepository;
+import com.promoticon.account.UsernameIndex;
+import com.promoticon.account.importer.AccountImportProperties;
+import com.promoticon.account.importer.AccountImporter;
+import com.promoticon.config.CachingPersistentTokenRepository;
+import com.promoticon.domain.Account;
+import com.promoticon.mail.OutboxMailRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "app.mail-outbox.poll-interval-ms=3600000",
+        "app.purge.batch-size=2",
+        "app.purge.pause=0ms"
+})
+class PurgeJobTest {
+
+    @Autowired PurgeJob purgeJob;
+    @Autowired AccountRepository accountRepository;
+    @Autowired UsernameIndex usernameIndex;
+    @Autowired CachingPersistentTokenRepository tokenRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+    @Autowired PurgeProperties purgeProperties;
+    @Autowired AccountImporter accountImporter;
+    @Autowired AccountImportProperties importProperties;
+    @Autowired OutboxMailRepository outboxMailRepository;
+
+    @TempDir Path dir;
+
+    @AfterEach
+    void afterEach() {
+        jdbcTemplate.update("delete from persistent_logins");
+        accountRepository.deleteAll();
+    }
+
+    @DisplayName("오래 쓰이지 않은 remember-me 토큰만 여러 배치로 나눠 지운다")
+    @Test
+    void purgeRememberMeTokens() {
+        LocalDateTime old = LocalDateTime.now().minusDays(30);
+        for (int i = 0; i < 5; i++) {
+            insertToken("old-" + i, old);
+        }
+        insertToken("recent", LocalDateTime.now().minusDays(1));
+
+        assertEquals(5, purgeJob.purgeRememberMeTokens());
+
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from persistent_logins", Integer.class));
+        assertNull(tokenRepository.getTokenForSeries("old-0"));
+        assertNotNull(tokenRepository.getTokenForSeries("recent"));
+    }
+
+    @DisplayName("기간이 지나도록 인증하지 않은 계정만 지우고 캐시와 인덱스에서도 뺀다")
+    @Test
+    void purgeAbandonedSignUps() {
+        LocalDateTime old = LocalDateTime.now().minusDays(30);
+        for (int i = 0; i < 3; i++) {
+            save("abandoned" + i, false, old);
+        }
+        save("recent", false, LocalDateTime.now());
+        save("verified", true, old);
+        save("legacy", false, null);
+        insertToken("abandoned-series", LocalDateTime.now(), "abandoned0");
+
+        // 2차 캐시와 유저네임 인덱스에 올려 둔다.
+        assertNotNull(accountRepository.findByUsername("abandoned0"));
+        usernameIndex.add("abandoned0");
+
+        assertEquals(3, purgeJob.purgeAbandonedSignUps());
+
+        assertNull(accountRepository.findByUsername("abandoned0"));
+        assertNull(accountRepository.findByEmail("abandoned1@email.com"));
+        assertFalse(usernameIndex.contains("abandoned0"));
+        assertNull(tokenRepository.getTokenForSeries("abandoned-series"));
+        assertNotNull(accountRepository.findByUsername("recent"));
+        assertNotNull(accountRepository.findByUsername("verified"));
+        assertNotNull(accountRepository.findByUsername("legacy"));
+    }
+
+    @DisplayName("인증 메일 없이 가져온 미인증 계정은 지우지 않는다")
+    @Test
+    void keepImportedAccountsWithoutConfirmation() throws IOException {
+        Duration retention = purgeProperties.getUnverifiedAccountRetention();
+        purgeProperties.setUnverifiedAccountRetention(Duration.ZERO);
+        try {
+            accountImporter.importFile(write("silent.csv", "silent@email.com,silent,12345678"));
+            importProperties.setSendConfirmation(true);
+            accountImporter.importFile(write("mailed.csv", "mailed@email.com,mailed,12345678"));
+
+            assertEquals(1, purgeJob.purgeAbandonedSignUps());
+
+            assertNotNull(accountRepository.findByUsername("silent"));
+            assertNull(accountRepository.findByUsername("mailed"));
+        } finally {
+            purgeProperties.setUnverifiedAccountRetention(retention);
+            importProperties.setSendConfirmation(false);
+            outboxMailRepository.deleteAll();
+        }
+    }
+
+    private Path write(String name, String line) throws IOException {
+        Path file = dir.resolve(name);
+        Files.write(file, List.of("email,username,password", line), StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private void save(String username, boolean verified, LocalDateTime createdAt) {
+        accountRepository.save(Account.builder()
+                .email(username + "@email.com")
+                .username(username)
+                .password("12345678")
+                .emailVerified(verified)
+                .createdAt(createdAt)
+                .build());
+    }
+
+    private void insertToken(String series, LocalDateTime lastUsed) {
+        insertToken(series, lastUsed, "member");
+    }
+
+    private void insertToken(String series, LocalDateTime lastUsed, String username) {
+        jdbcTemplate.update("insert into persistent_logins (series, username, token, last_used) values (?, ?, ?, ?)",
+                series, username, "token", Timestamp.valueOf(lastUsed));
+    }
+}
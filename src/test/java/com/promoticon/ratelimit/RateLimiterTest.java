@@ -0,0 +1,88 @@
+package com.promoticon.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimiterTest {
+
+    AtomicLong now = new AtomicLong();
+
+    @DisplayName("한도만큼 연달아 허용하고 나면 채워지는 주기마다 하나씩 허용한다")
+    @Test
+    void burstThenRefill() {
+        RateLimiter limiter = new RateLimiter("test", 3, Duration.ofSeconds(3), 100, now::get);
+
+        assertTrue(limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("a"));
+        assertFalse(limiter.tryAcquire("a"));
+        assertTrue(limiter.tryAcquire("b"));
+
+        now.addAndGet(Duration.ofMillis(999).toNanos());
+        assertFalse(limiter.tryAcquire("a"));
+        now.addAndGet(Duration.ofMillis(1).toNanos());
+        assertTrue(limiter.tryAcquire("a"));
+        assertFalse(limiter.tryAcquire("a"));
+    }
+
+    @DisplayName("버킷이 다시 가득 찬 키만 지운다")
+    @Test
+    void evictIdle() {
+        RateLimiter limiter = new RateLimiter("test", 1, Duration.ofSeconds(10), 100, now::get);
+        limiter.tryAcquire("old");
+        now.addAndGet(Duration.ofSeconds(5).toNanos());
+        limiter.tryAcquire("new");
+        now.addAndGet(Duration.ofSeconds(5).toNanos());
+
+        assertEquals(1, limiter.evictIdle());
+        assertEquals(1, limiter.size());
+        assertFalse(limiter.tryAcquire("new"));
+    }
+
+    @DisplayName("기억할 수 있는 키가 가득 차면 가장 오래된 키를 지우고 새 키를 받는다")
+    @Test
+    void evictOldestKeysWhenFull() {
+        RateLimiter limiter = new RateLimiter("test", 1, Duration.ofMinutes(1), 160, now::get);
+        assertTrue(limiter.tryAcquire("oldest"));
+        for (int i = 0; i < 1000; i++) {
+            now.incrementAndGet();
+            assertTrue(limiter.tryAcquire("key-" + i));
+        }
+
+        assertTrue(limiter.size() <= 160);
+        assertTrue(limiter.tryAcquire("oldest"));
+        assertFalse(limiter.tryAcquire("key-999"));
+    }
+
+    @DisplayName("여러 스레드가 같은 키를 동시에 써도 한도를 넘지 않는다")
+    @Test
+    void concurrentAcquire() throws Exception {
+        RateLimiter limiter = new RateLimiter("test", 50, Duration.ofHours(1), 100);
+        AtomicInteger accepted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < 8; i++) {
+            executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < 100; j++) {
+                    if (limiter.tryAcquire("shared")) {
+                        accepted.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(50, accepted.get());
+    }
+}
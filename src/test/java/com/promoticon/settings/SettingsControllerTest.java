@@ -1,5 +1,6 @@
 package com.promoticon.settings;
 
+import com.promoticon.QueryBudget;
 import com.promoticon.WithAccount;
 import com.promoticon.account.AccountRepository;
 import com.promoticon.account.AccountService;
@@ -60,7 +61,8 @@ class SettingsControllerTest {
         mockMvc.perform(get(SettingsController.SETTINGS_PROFILE_URL))
                 .andExpect(status().isOk())
                 .andExpect(model().attributeExists("account"))
-                .andExpect(model().attributeExists("profile"));
+                .andExpect(model().attributeExists("profile"))
+                .andExpect(QueryBudget.atMost(3).withoutDuplicates());
     }
 
     //@WithUserDetails(value = "mea", setupBefore = TestExecutionEvent.TEST_EXECUTION)
@@ -74,7 +76,8 @@ class SettingsControllerTest {
                         .with(csrf()))
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl(SettingsController.SETTINGS_PROFILE_URL))
-                .andExpect(flash().attributeExists("message"));
+                .andExpect(flash().attributeExists("message"))
+                .andExpect(QueryBudget.atMost(4).withoutDuplicates());
 
         Account mea = accountRepository.findByUsername("mea");
         assertEquals(bio, mea.getBio());